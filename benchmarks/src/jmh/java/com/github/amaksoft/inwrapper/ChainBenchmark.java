@@ -0,0 +1,98 @@
+package com.github.amaksoft.inwrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for wrapper chain processing of {@link InWrapperConverterFactory}.
+ * Lives in the factory package to reach package private pipeline methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChainBenchmark {
+
+    static class Wrapper<T> {
+        final T value;
+
+        Wrapper(T value) {
+            this.value = value;
+        }
+    }
+
+    public static class Packer<T> implements InWrapperConverterFactory.RequestPacker<Wrapper<T>, T> {
+        @Override
+        public Wrapper<T> pack(T data, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            return new Wrapper<>(data);
+        }
+    }
+
+    public static class Unwrapper<T> implements InWrapperConverterFactory.ResponseUnwrapper<Wrapper<T>, T> {
+        @Override
+        public T unwrap(Wrapper<T> wrapper, int depth, Annotation[] annotations) {
+            return wrapper.value;
+        }
+    }
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+    private static final String DATA = "data";
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int depth;
+
+    private InWrapperConverterFactory factory;
+    private Class[] chain;
+    private InWrapperConverterFactory.RequestPacker[] packers;
+    private InWrapperConverterFactory.ResponseUnwrapper[] unwrappers;
+    private Object wrapped;
+
+    @Setup
+    public void setUp() {
+        factory = new InWrapperConverterFactory.Builder()
+                .registerPacker(Wrapper.class, new Packer<>())
+                .registerUnwrapper(Wrapper.class, new Unwrapper<>())
+                .build();
+
+        chain = new Class[depth];
+        Arrays.fill(chain, Wrapper.class);
+        packers = factory.resolvePackers(chain);
+        unwrappers = factory.resolveUnwrappers(chain);
+        wrapped = factory.chainPack(DATA, packers, NO_ANNOTATIONS, NO_ANNOTATIONS);
+    }
+
+    @Benchmark
+    public Object chainPack() {
+        return factory.chainPack(DATA, chain, NO_ANNOTATIONS, NO_ANNOTATIONS);
+    }
+
+    @Benchmark
+    public Object chainPackPrecompiled() {
+        return factory.chainPack(DATA, packers, NO_ANNOTATIONS, NO_ANNOTATIONS);
+    }
+
+    @Benchmark
+    public Object chainUnwrap() {
+        return factory.chainUnwrap(wrapped, chain, NO_ANNOTATIONS);
+    }
+
+    @Benchmark
+    public Object chainUnwrapPrecompiled() {
+        return factory.chainUnwrap(wrapped, unwrappers, NO_ANNOTATIONS);
+    }
+
+    @Benchmark
+    public Type getWrappedType() {
+        return factory.getWrappedType(String.class, chain, NO_ANNOTATIONS, NO_ANNOTATIONS);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.github.amaksoft.inwrapper.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapperTypeAdapterFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.jackson.SingleFieldWrapperModule;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SingleFieldWrapperModule} to {@link SingleFieldWrapperTypeAdapterFactory}
+ * on the same nested wrappers and payloads.<br/>
+ * <p>
+ * Both backends read from bytes and write to a {@link String}, as their Retrofit converters do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JacksonVsGsonBenchmark {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @Param({"1", "3", "5"})
+    public int depth;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Payloads.Size size;
+
+    private Gson gson;
+    private Type wrappedType;
+    private ObjectReader jacksonReader;
+    private ObjectWriter jacksonWriter;
+    private Object wrapper;
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new SingleFieldWrapperTypeAdapterFactory())
+                .create();
+
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new SingleFieldWrapperModule())
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+        wrappedType = Payloads.nestedType(SingleFieldWrapper.class, depth);
+        JavaType javaType = mapper.getTypeFactory().constructType(wrappedType);
+        jacksonReader = mapper.readerFor(javaType);
+        jacksonWriter = mapper.writerFor(javaType);
+
+        Object packed = Payloads.items(size);
+        SingleFieldWrapper.Packer<Object> packer = new SingleFieldWrapper.Packer<>();
+        for (int i = depth - 1; i >= 0; i--) {
+            packed = packer.pack(packed, i, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        }
+        wrapper = packed;
+        json = gson.toJson(wrapper, wrappedType).getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public String serializeGson() {
+        return gson.toJson(wrapper, wrappedType);
+    }
+
+    @Benchmark
+    public String serializeJackson() throws IOException {
+        return jacksonWriter.writeValueAsString(wrapper);
+    }
+
+    @Benchmark
+    public Object deserializeGson() {
+        return gson.fromJson(new InputStreamReader(new ByteArrayInputStream(json), UTF_8), wrappedType);
+    }
+
+    @Benchmark
+    public Object deserializeJackson() throws IOException {
+        return jacksonReader.readValue(json);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.github.amaksoft.inwrapper.benchmarks;
+
+import com.google.gson.internal.$Gson$Types;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test data shared by serialization benchmarks
+ */
+public final class Payloads {
+
+    /**
+     * Payload sizes, roughly 100 bytes, 10 kilobytes and 3 megabytes of JSON
+     */
+    public enum Size {
+        SMALL(1), MEDIUM(100), LARGE(30000);
+
+        final int items;
+
+        Size(int items) {
+            this.items = items;
+        }
+    }
+
+    static final Type ITEMS_TYPE = new TypeToken<List<Item>>() {
+    }.getType();
+
+    static class Item {
+        long id;
+        String name;
+        double price;
+        List<String> tags;
+
+        Item(long id, String name, double price, List<String> tags) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+            this.tags = tags;
+        }
+
+        @SuppressWarnings("unused")
+        private Item() {
+            // for Jackson
+        }
+    }
+
+    /**
+     * Plain hand-written envelope, the baseline to compare the library against
+     */
+    static class Envelope<T> {
+        T data;
+
+        Envelope(T data) {
+            this.data = data;
+        }
+
+        @SuppressWarnings("unused")
+        private Envelope() {
+            // for Jackson
+        }
+    }
+
+    private Payloads() {
+    }
+
+    static List<Item> items(Size size) {
+        List<Item> items = new ArrayList<>(size.items);
+        for (int i = 0; i < size.items; i++) {
+            items.add(new Item(i, "item #" + i, i * 1.5, Arrays.asList("tag" + (i % 7), "tag" + (i % 13))));
+        }
+        return items;
+    }
+
+    /**
+     * Creates nested parameterized type, e.g. {@code W<W<List<Item>>>} for depth of 2
+     */
+    static Type nestedType(Class<?> wrapperClass, int depth) {
+        Type type = ITEMS_TYPE;
+        for (int i = 0; i < depth; i++) {
+            type = $Gson$Types.newParameterizedTypeWithOwner(null, wrapperClass, type);
+        }
+        return type;
+    }
+
+    static Object envelope(Object data, int depth) {
+        Object wrapped = data;
+        for (int i = 0; i < depth; i++) {
+            wrapped = new Envelope<>(wrapped);
+        }
+        return wrapped;
+    }
+
+    static Object unwrapEnvelope(Object wrapped, int depth) {
+        Object data = wrapped;
+        for (int i = 0; i < depth; i++) {
+            data = ((Envelope) data).data;
+        }
+        return data;
+    }
+}
\ No newline at end of file
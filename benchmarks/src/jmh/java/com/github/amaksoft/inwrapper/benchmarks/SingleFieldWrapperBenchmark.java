@@ -0,0 +1,164 @@
+package com.github.amaksoft.inwrapper.benchmarks;
+
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.ParallelArrayStreamingUnwrapperFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldStreamingUnwrapperFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapperTypeAdapterFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import retrofit2.Converter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end serialization/deserialization benchmarks for {@link SingleFieldWrapperTypeAdapterFactory}
+ * and streaming unwrapper factories, compared to a hand-written envelope class
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SingleFieldWrapperBenchmark {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=UTF-8");
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int depth;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Payloads.Size size;
+
+    private Gson gson;
+    private Type wrappedType;
+    private Type envelopeType;
+    private List<Payloads.Item> items;
+    private Object wrapper;
+    private Object envelope;
+    private byte[] json;
+    private InWrapperConverterFactory.ResponseUnwrapper[] unwrappers;
+    private InWrapperConverterFactory.RequestPacker[] packers;
+    private InWrapperConverterFactory.RequestPacker[] reusablePackers;
+    private Converter<ResponseBody, ?> streamingConverter;
+    private ForkJoinPool pool;
+    private Converter<ResponseBody, ?> parallelConverter;
+
+    @Setup
+    public void setUp() {
+        gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new SingleFieldWrapperTypeAdapterFactory())
+                .create();
+
+        items = Payloads.items(size);
+        Class[] chain = new Class[depth];
+        Arrays.fill(chain, SingleFieldWrapper.class);
+
+        packers = new InWrapperConverterFactory.RequestPacker[depth];
+        Arrays.fill(packers, new SingleFieldWrapper.Packer<>());
+        // bound the way request converters bind them
+        reusablePackers = new InWrapperConverterFactory.RequestPacker[depth];
+        for (int i = 0; i < depth; i++) {
+            reusablePackers[i] = new SingleFieldWrapper.ReusablePacker<>().bind(i, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        }
+        unwrappers = new InWrapperConverterFactory.ResponseUnwrapper[depth];
+        Arrays.fill(unwrappers, new SingleFieldWrapper.Unwrapper<>());
+
+        wrappedType = Payloads.nestedType(SingleFieldWrapper.class, depth);
+        envelopeType = Payloads.nestedType(Payloads.Envelope.class, depth);
+        wrapper = pack(packers, items);
+        envelope = Payloads.envelope(items, depth);
+
+        // both produce the same JSON, so the same input is used for all deserialization benchmarks
+        json = gson.toJson(envelope, envelopeType).getBytes(Charset.forName("UTF-8"));
+        streamingConverter = new SingleFieldStreamingUnwrapperFactory(gson).create(Payloads.ITEMS_TYPE, chain, NO_ANNOTATIONS, null);
+        pool = new ForkJoinPool();
+        parallelConverter = new ParallelArrayStreamingUnwrapperFactory(gson, pool).create(Payloads.ITEMS_TYPE, chain, NO_ANNOTATIONS, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private Object pack(InWrapperConverterFactory.RequestPacker[] chain, Object data) {
+        Object packed = data;
+        for (int i = depth - 1; i >= 0; i--) {
+            //noinspection unchecked
+            packed = chain[i].pack(packed, i, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        }
+        return packed;
+    }
+
+    private Object unwrap(Object wrapped) {
+        Object data = wrapped;
+        for (int i = 0; i < depth; i++) {
+            //noinspection unchecked
+            data = unwrappers[i].unwrap(data, i, NO_ANNOTATIONS);
+        }
+        return data;
+    }
+
+    @Benchmark
+    public String serializeWrapper() {
+        return gson.toJson(wrapper, wrappedType);
+    }
+
+    @Benchmark
+    public String packAndSerializeWrapper() {
+        return gson.toJson(pack(packers, items), wrappedType);
+    }
+
+    @Benchmark
+    public String packAndSerializeReusableWrapper() {
+        try {
+            return gson.toJson(pack(reusablePackers, items), wrappedType);
+        } finally {
+            for (InWrapperConverterFactory.RequestPacker packer : reusablePackers) {
+                ((InWrapperConverterFactory.RecyclingPacker) packer).recycle();
+            }
+        }
+    }
+
+    @Benchmark
+    public String serializeBaseline() {
+        return gson.toJson(envelope, envelopeType);
+    }
+
+    @Benchmark
+    public Object deserializeWrapper() {
+        return unwrap(gson.fromJson(new String(json, Charset.forName("UTF-8")), wrappedType));
+    }
+
+    @Benchmark
+    public Object deserializeBaseline() {
+        return Payloads.unwrapEnvelope(gson.fromJson(new String(json, Charset.forName("UTF-8")), envelopeType), depth);
+    }
+
+    @Benchmark
+    public Object deserializeStreaming() throws IOException {
+        return streamingConverter.convert(ResponseBody.create(JSON, json));
+    }
+
+    @Benchmark
+    public Object deserializeParallel() throws IOException {
+        return parallelConverter.convert(ResponseBody.create(JSON, json));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,311 @@
+package com.github.amaksoft.inwrapper.async;
+
+import com.github.amaksoft.inwrapper.CloseableIterator;
+import com.github.amaksoft.inwrapper.InWrapper;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldStreamingUnwrapperFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import com.google.gson.Gson;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Load tests for {@link AsyncInWrapperCallAdapterFactory} with calls awaited on virtual threads.<br/>
+ * <p>
+ * Need JDK 21+ and are run by {@code loadTest} task with a heap smaller than a single response body,
+ * so a body buffered whole anywhere between the socket and the consumer fails the test with {@link OutOfMemoryError}.
+ * Synchronous calls are also executed and converted on virtual threads while {@code jdk.VirtualThreadPinned} events are recorded,
+ * so blocking on a socket read inside a monitor anywhere in conversion fails the test.
+ */
+public class VirtualThreadLoadTest {
+
+    private static final int CALLS = 2000;
+    private static final int ELEMENTS = 500;
+
+    private static final int PINNING_CALLS = 200;
+
+    private static final int LARGE_CALLS = 4;
+    // 128MB bodies
+    private static final int LARGE_BODY_CHUNKS = 2048;
+    private static final int CHUNK_ELEMENTS = 8192;
+
+    interface ApiService {
+        @GET("/")
+        @InWrapper({SingleFieldWrapper.class})
+        AsyncElements<Integer> getItems(@Query("call") int call);
+    }
+
+    interface SyncApiService {
+        @GET("/")
+        @InWrapper({SingleFieldWrapper.class})
+        Call<List<Integer>> getList(@Query("call") int call);
+
+        @GET("/")
+        @InWrapper({SingleFieldWrapper.class})
+        Call<CloseableIterator<Integer>> getIterator(@Query("call") int call);
+    }
+
+    private static final Gson gson = new Gson();
+
+    @Rule
+    public final MockWebServer mockWebServer = new MockWebServer();
+
+    private static ApiService createService(String baseUrl) {
+        InWrapperConverterFactory inWrapperConverterFactory = new InWrapperConverterFactory.Builder()
+                .registerStreamingUnwrapperFactory(new SingleFieldStreamingUnwrapperFactory(gson))
+                .build();
+        return new Retrofit.Builder()
+                .addCallAdapterFactory(new AsyncInWrapperCallAdapterFactory.Builder(inWrapperConverterFactory).build())
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(baseUrl)
+                .build()
+                .create(ApiService.class);
+    }
+
+    private static SyncApiService createSyncService(String baseUrl) {
+        InWrapperConverterFactory inWrapperConverterFactory = new InWrapperConverterFactory.Builder()
+                .registerStreamingUnwrapperFactory(new SingleFieldStreamingUnwrapperFactory(gson))
+                .build();
+        return new Retrofit.Builder()
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(baseUrl)
+                .build()
+                .create(SyncApiService.class);
+    }
+
+    private static String itemsBody() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < ELEMENTS; i++) {
+            items.add(i);
+        }
+        return "{\"items\":" + gson.toJson(items) + "}";
+    }
+
+    @Test
+    public void testConcurrentCallsOnVirtualThreads() throws Exception {
+        final String body = itemsBody();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(body);
+            }
+        });
+        ApiService apiService = createService(mockWebServer.url("/").toString());
+
+        AtomicLong sum = new AtomicLong();
+        List<Future<Long>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLS; i++) {
+                final int call = i;
+                // blocks the virtual thread only, the call itself is performed by HTTP client threads
+                results.add(executor.submit(() -> apiService.getItems(call).forEach(sum::addAndGet).toCompletableFuture().get(1, TimeUnit.MINUTES)));
+            }
+        }
+
+        for (Future<Long> result : results) {
+            assertThat("Element count mismatch", result.get(), is(equalTo((long) ELEMENTS)));
+        }
+        assertThat("Elements sum mismatch", sum.get(), is(equalTo((long) CALLS * ELEMENTS * (ELEMENTS - 1) / 2)));
+    }
+
+    @Test
+    public void testSynchronousConversionDoesNotPinVirtualThreads() throws Exception {
+        final String body = itemsBody();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                // throttled, so converters block on socket reads mid-body
+                return new MockResponse().setBody(body).throttleBody(256, 5, TimeUnit.MILLISECONDS);
+            }
+        });
+        SyncApiService apiService = createSyncService(mockWebServer.url("/").toString());
+
+        List<Future<Long>> results = new ArrayList<>();
+        Path dump = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < PINNING_CALLS; i++) {
+                    final int call = i;
+                    results.add(executor.submit(() -> (long) apiService.getList(call).execute().body().size()));
+                    results.add(executor.submit(() -> {
+                        long count = 0;
+                        try (CloseableIterator<Integer> iterator = apiService.getIterator(call).execute().body()) {
+                            while (iterator.hasNext()) {
+                                iterator.next();
+                                count++;
+                            }
+                        }
+                        return count;
+                    }));
+                }
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        for (Future<Long> result : results) {
+            assertThat("Element count mismatch", result.get(), is(equalTo((long) ELEMENTS)));
+        }
+        try {
+            List<RecordedEvent> pinnedEvents = RecordingFile.readAllEvents(dump);
+            assertThat("Virtual threads were pinned: " + pinnedEvents, pinnedEvents.isEmpty());
+        } finally {
+            Files.delete(dump);
+        }
+    }
+
+    @Test
+    public void testBodiesLargerThanHeapAreStreamed() throws Exception {
+        assertThat("Heap has to be smaller than a response body, run the test with loadTest task",
+                Runtime.getRuntime().maxMemory() < StreamingServer.bodySize(LARGE_BODY_CHUNKS));
+
+        final CountDownLatch[] firstElements = new CountDownLatch[LARGE_CALLS];
+        for (int i = 0; i < LARGE_CALLS; i++) {
+            firstElements[i] = new CountDownLatch(1);
+        }
+        List<Future<Long>> results = new ArrayList<>();
+        try (StreamingServer server = new StreamingServer(LARGE_BODY_CHUNKS, firstElements)) {
+            ApiService apiService = createService(server.url());
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < LARGE_CALLS; i++) {
+                    final int call = i;
+                    results.add(executor.submit(() -> apiService.getItems(call)
+                            .forEach(element -> firstElements[call].countDown())
+                            .toCompletableFuture().get(5, TimeUnit.MINUTES)));
+                }
+            }
+            assertThat("Server errors: " + server.errors, server.errors.isEmpty());
+        }
+
+        for (Future<Long> result : results) {
+            assertThat("Element count mismatch", result.get(), is(equalTo((long) LARGE_BODY_CHUNKS * CHUNK_ELEMENTS)));
+        }
+    }
+
+    /**
+     * Serves {@code {"items":[1000000,...]}} bodies generated while they are written, so the test never holds a whole body.
+     * Only the first chunk of a body is sent until the call given by {@code call} query parameter receives an element,
+     * so bodies which are read whole before their elements are passed on never complete.
+     */
+    private static final class StreamingServer implements Closeable {
+        private static final byte[] PREFIX = "{\"items\":[".getBytes(US_ASCII);
+        private static final byte[] SUFFIX = "]}".getBytes(US_ASCII);
+        private static final byte[] ELEMENT = "1000000,".getBytes(US_ASCII);
+
+        private final ServerSocket serverSocket;
+        private final int chunks;
+        private final CountDownLatch[] firstElements;
+        private final byte[] chunk = new byte[CHUNK_ELEMENTS * ELEMENT.length];
+        final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        StreamingServer(int chunks, CountDownLatch[] firstElements) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.chunks = chunks;
+            this.firstElements = firstElements;
+            for (int i = 0; i < CHUNK_ELEMENTS; i++) {
+                System.arraycopy(ELEMENT, 0, chunk, i * ELEMENT.length, ELEMENT.length);
+            }
+            Thread.ofVirtual().start(this::accept);
+        }
+
+        static long bodySize(int chunks) {
+            // the last element has no trailing comma
+            return PREFIX.length + (long) chunks * CHUNK_ELEMENTS * ELEMENT.length - 1 + SUFFIX.length;
+        }
+
+        String url() {
+            return "http://localhost:" + serverSocket.getLocalPort() + "/";
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    Thread.ofVirtual().start(() -> serve(socket));
+                } catch (IOException e) {
+                    // server socket is closed
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (Socket s = socket) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream(), US_ASCII));
+                String requestLine = reader.readLine();
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    // request headers are not needed
+                }
+                int callStart = requestLine.indexOf("call=") + "call=".length();
+                int call = Integer.parseInt(requestLine.substring(callStart, requestLine.indexOf(' ', callStart)));
+
+                OutputStream out = new BufferedOutputStream(s.getOutputStream());
+                out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: " + bodySize(chunks)
+                        + "\r\nConnection: close\r\n\r\n").getBytes(US_ASCII));
+                out.write(PREFIX);
+                for (int i = 0; i < chunks; i++) {
+                    out.write(chunk, 0, i < chunks - 1 ? chunk.length : chunk.length - 1);
+                    if (i == 0) {
+                        out.flush();
+                        if (!firstElements[call].await(10, TimeUnit.SECONDS)) {
+                            errors.add(new AssertionError("No element of call " + call + " received before the rest of its body was sent"));
+                            return;
+                        }
+                    }
+                }
+                out.write(SUFFIX);
+                out.flush();
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                errors.add(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
\ No newline at end of file
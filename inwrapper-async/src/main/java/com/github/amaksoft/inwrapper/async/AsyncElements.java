@@ -0,0 +1,27 @@
+package com.github.amaksoft.inwrapper.async;
+
+import com.github.amaksoft.inwrapper.CloseableIterator;
+import com.github.amaksoft.inwrapper.InWrapper;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * Elements of wrapped array, pushed to a consumer as they are decoded from response body.<br/>
+ * <p>
+ * Declare {@link retrofit2.Retrofit} interface method annotated with {@link InWrapper} as returning {@code AsyncElements<T>}
+ * to consume large wrapped arrays without blocking the caller and without holding the whole list in memory.
+ * Elements are decoded by the streaming {@link CloseableIterator} converter on the HTTP client thread.
+ *
+ * @param <T> element type
+ */
+public interface AsyncElements<T> {
+    /**
+     * Performs the request and passes every element to {@code consumer}. Every call performs a new request.
+     *
+     * @param consumer element consumer, called on the HTTP client thread
+     * @return stage completed with the number of consumed elements once the response body is exhausted,
+     * or exceptionally if the request, decoding or the consumer fails
+     */
+    CompletionStage<Long> forEach(Consumer<? super T> consumer);
+}
\ No newline at end of file
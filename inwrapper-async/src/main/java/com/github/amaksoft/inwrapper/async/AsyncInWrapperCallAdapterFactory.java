@@ -0,0 +1,443 @@
+package com.github.amaksoft.inwrapper.async;
+
+import com.github.amaksoft.inwrapper.CloseableIterator;
+import com.github.amaksoft.inwrapper.InWrapper;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * {@link CallAdapter.Factory} for non-blocking {@link Retrofit} interface methods.<br/>
+ * <p>
+ * Supported return types:
+ * <ul>
+ * <li>{@code CompletionStage<T>} or {@code CompletableFuture<T>}: the call is enqueued, and the stage is completed
+ * on the HTTP client thread. Bodies of methods annotated with {@link InWrapper} are unwrapped by {@link InWrapperConverterFactory}
+ * converters (streaming ones included) while they are read. If there is an {@link AsyncUnwrapper} registered
+ * for any wrapper of the chain, the wrapper is bound by the next converter instead, and the chain is unwrapped by composing
+ * asynchronous unwrappers with the regular ones, so no thread waits for them</li>
+ * <li>{@link AsyncElements AsyncElements&lt;T&gt;} for methods annotated with {@link InWrapper}: elements of wrapped array
+ * are decoded by {@link CloseableIterator} streaming converter and pushed to the consumer as the body is read</li>
+ * </ul>
+ * Stages of non-2xx responses are completed exceptionally with {@link HttpException}.
+ * Cancelling the returned {@link CompletableFuture} cancels the call.<br/>
+ * <p>
+ * If asynchronous unwrappers are registered, add {@link #converterFactory()} to {@link Retrofit.Builder}
+ * before {@link InWrapperConverterFactory}. Request bodies are packed by {@link InWrapperConverterFactory} as usual,
+ * since {@link Retrofit} creates them before the call is enqueued.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class AsyncInWrapperCallAdapterFactory extends CallAdapter.Factory {
+
+    private final InWrapperConverterFactory inWrapperConverterFactory;
+    private final Map<Class, AsyncUnwrapper> asyncUnwrappers;
+    private final Converter.Factory converterFactory = new WrappedBodyConverterFactory();
+
+    private AsyncInWrapperCallAdapterFactory(InWrapperConverterFactory inWrapperConverterFactory, Map<Class, AsyncUnwrapper> asyncUnwrappers) {
+        this.inWrapperConverterFactory = inWrapperConverterFactory;
+        this.asyncUnwrappers = asyncUnwrappers;
+    }
+
+    /**
+     * Converter factory binding wrappers of chains with asynchronous unwrappers.
+     * Add it to {@link Retrofit.Builder} before {@link InWrapperConverterFactory}
+     *
+     * @return converter factory
+     */
+    public Converter.Factory converterFactory() {
+        return converterFactory;
+    }
+
+    @Nullable
+    @Override
+    public CallAdapter<?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        Class<?> rawType = rawType(returnType);
+        if (rawType != CompletionStage.class && rawType != CompletableFuture.class && rawType != AsyncElements.class) {
+            return null;
+        }
+        if (!(returnType instanceof ParameterizedType)) {
+            String name = rawType.getSimpleName();
+            throw new IllegalStateException(name + " return type must be parameterized as " + name + "<Foo> or " + name + "<? extends Foo>");
+        }
+        Type dataType = upperBound(((ParameterizedType) returnType).getActualTypeArguments()[0]);
+        InWrapper wrapperAnno = findWrapperAnnotation(annotations);
+
+        if (rawType == AsyncElements.class) {
+            if (wrapperAnno == null) {
+                throw new IllegalStateException(AsyncElements.class.getSimpleName() + " return type requires "
+                        + InWrapper.class.getSimpleName() + " annotation");
+            }
+            return new ElementsCallAdapter(new ParameterizedTypeImpl(CloseableIterator.class, dataType));
+        }
+
+        if (wrapperAnno != null) {
+            Class[] wrapperClasses = wrapperAnno.value();
+            AsyncUnwrapper[] unwrappers = resolveUnwrappers(wrapperClasses);
+            if (unwrappers != null) {
+                checkConverterFactory(retrofit);
+                Type wrappedType = inWrapperConverterFactory.getWrappedType(dataType, wrapperClasses, null, annotations);
+                return new UnwrappingCallAdapter(new ParameterizedTypeImpl(WrappedBody.class, wrappedType), unwrappers, annotations);
+            }
+        }
+        return new CompletionStageCallAdapter(dataType);
+    }
+
+    /**
+     * Resolves unwrappers for every wrapper in {@code wrapperClasses} chain, adapting regular unwrappers
+     * of {@link InWrapperConverterFactory} for the wrappers without asynchronous ones
+     *
+     * @param wrapperClasses wrapper classes chain
+     * @return unwrappers in the same order as wrapper classes
+     * or {@code null} if there are no asynchronous unwrappers for the chain, and it can be unwrapped by converters
+     */
+    @Nullable
+    private AsyncUnwrapper[] resolveUnwrappers(Class[] wrapperClasses) {
+        AsyncUnwrapper[] unwrappers = new AsyncUnwrapper[wrapperClasses.length];
+        boolean async = false;
+        for (int i = 0; i < wrapperClasses.length; i++) {
+            unwrappers[i] = asyncUnwrappers.get(wrapperClasses[i]);
+            async |= unwrappers[i] != null;
+        }
+        if (!async) {
+            return null;
+        }
+        for (int i = 0; i < wrapperClasses.length; i++) {
+            if (unwrappers[i] == null) {
+                final InWrapperConverterFactory.ResponseUnwrapper unwrapper = inWrapperConverterFactory.resolveUnwrappers(new Class[]{wrapperClasses[i]})[0];
+                //noinspection unchecked (unwrapper should be of required type)
+                unwrappers[i] = (wrapper, depth, annotations) -> CompletableFuture.completedFuture(unwrapper.unwrap(wrapper, depth, annotations));
+            }
+        }
+        return unwrappers;
+    }
+
+    private void checkConverterFactory(Retrofit retrofit) {
+        for (Converter.Factory factory : retrofit.converterFactories()) {
+            if (factory == converterFactory) {
+                return;
+            }
+            if (factory instanceof InWrapperConverterFactory) {
+                break;
+            }
+        }
+        throw new IllegalStateException("Asynchronous unwrappers require " + AsyncInWrapperCallAdapterFactory.class.getSimpleName()
+                + ".converterFactory() to be added before " + InWrapperConverterFactory.class.getSimpleName());
+    }
+
+    @Nullable
+    private static InWrapper findWrapperAnnotation(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof InWrapper) {
+                return (InWrapper) annotation;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return null;
+    }
+
+    private static Type upperBound(Type type) {
+        return type instanceof WildcardType ? ((WildcardType) type).getUpperBounds()[0] : type;
+    }
+
+    private static Throwable unwrapCompletion(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Future cancelling the call it is completed by
+     */
+    private static final class CallFuture<T> extends CompletableFuture<T> {
+        private final Call<?> call;
+
+        CallFuture(Call<?> call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            call.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * Completes the future exceptionally on call failures and non-2xx responses, passes successful response body on
+     */
+    private static abstract class BodyCallback<R> implements Callback<R> {
+        private final CompletableFuture<?> future;
+
+        BodyCallback(CompletableFuture<?> future) {
+            this.future = future;
+        }
+
+        abstract void onBody(R body) throws Exception;
+
+        @Override
+        public void onResponse(Call<R> call, Response<R> response) {
+            if (!response.isSuccessful()) {
+                future.completeExceptionally(new HttpException(response));
+                return;
+            }
+            try {
+                onBody(response.body());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onFailure(Call<R> call, Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private static final class CompletionStageCallAdapter implements CallAdapter<CompletableFuture<?>> {
+        private final Type responseType;
+
+        CompletionStageCallAdapter(Type responseType) {
+            this.responseType = responseType;
+        }
+
+        @Override
+        public Type responseType() {
+            return responseType;
+        }
+
+        @Override
+        public <R> CompletableFuture<R> adapt(Call<R> call) {
+            final CallFuture<R> future = new CallFuture<>(call);
+            call.enqueue(new BodyCallback<R>(future) {
+                @Override
+                void onBody(R body) {
+                    future.complete(body);
+                }
+            });
+            return future;
+        }
+    }
+
+    private static final class UnwrappingCallAdapter implements CallAdapter<CompletableFuture<?>> {
+        private final Type responseType;
+        private final AsyncUnwrapper[] unwrappers;
+        private final Annotation[] annotations;
+
+        UnwrappingCallAdapter(Type responseType, AsyncUnwrapper[] unwrappers, Annotation[] annotations) {
+            this.responseType = responseType;
+            this.unwrappers = unwrappers;
+            this.annotations = annotations;
+        }
+
+        @Override
+        public Type responseType() {
+            return responseType;
+        }
+
+        @Override
+        public <R> CompletableFuture<Object> adapt(Call<R> call) {
+            final CallFuture<Object> future = new CallFuture<>(call);
+            call.enqueue(new BodyCallback<R>(future) {
+                @Override
+                void onBody(R body) {
+                    unwrap(body).whenComplete((value, error) -> {
+                        if (error != null) {
+                            future.completeExceptionally(unwrapCompletion(error));
+                        } else {
+                            future.complete(value);
+                        }
+                    });
+                }
+            });
+            return future;
+        }
+
+        private CompletionStage<Object> unwrap(Object wrapper) {
+            CompletionStage<Object> stage = CompletableFuture.completedFuture(wrapper);
+            for (int i = 0; i < unwrappers.length; i++) {
+                final AsyncUnwrapper unwrapper = unwrappers[i];
+                final int depth = i;
+                //noinspection unchecked (unwrapper should be of required type)
+                stage = stage.thenCompose(value -> unwrapper.unwrap(value, depth, annotations));
+            }
+            return stage;
+        }
+    }
+
+    private static final class ElementsCallAdapter implements CallAdapter<AsyncElements<?>> {
+        private final Type responseType;
+
+        ElementsCallAdapter(Type responseType) {
+            this.responseType = responseType;
+        }
+
+        @Override
+        public Type responseType() {
+            return responseType;
+        }
+
+        @Override
+        public <R> AsyncElements<Object> adapt(final Call<R> call) {
+            return consumer -> {
+                Call<R> elementsCall = call.clone();
+                final CallFuture<Long> future = new CallFuture<>(elementsCall);
+                elementsCall.enqueue(new BodyCallback<R>(future) {
+                    @Override
+                    void onBody(R body) throws Exception {
+                        long count = 0;
+                        if (body != null) {
+                            try (CloseableIterator<?> iterator = (CloseableIterator<?>) body) {
+                                // stop reading once the future is cancelled
+                                while (!future.isDone() && iterator.hasNext()) {
+                                    ((Consumer<Object>) consumer).accept(iterator.next());
+                                    count++;
+                                }
+                            }
+                        }
+                        future.complete(count);
+                    }
+                });
+                return future;
+            };
+        }
+    }
+
+    /**
+     * Marker raw type of wrapped response types, which are bound by {@link WrappedBodyConverterFactory}
+     *
+     * @param <W> wrapper type
+     */
+    @SuppressWarnings("unused")
+    private static final class WrappedBody<W> {
+    }
+
+    /**
+     * Binds wrappers of chains with asynchronous unwrappers with the first converter factory after {@link InWrapperConverterFactory}
+     */
+    private static final class WrappedBodyConverterFactory extends Converter.Factory {
+        @Nullable
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+            if (!(type instanceof ParameterizedType) || ((ParameterizedType) type).getRawType() != WrappedBody.class) {
+                return null;
+            }
+            Type wrappedType = ((ParameterizedType) type).getActualTypeArguments()[0];
+            for (Converter.Factory factory : retrofit.converterFactories()) {
+                // InWrapperConverterFactory would unwrap the body, since the method is annotated with InWrapper
+                if (factory == this || factory instanceof InWrapperConverterFactory) {
+                    continue;
+                }
+                Converter<ResponseBody, ?> converter = factory.responseBodyConverter(wrappedType, annotations, retrofit);
+                if (converter != null) {
+                    return converter;
+                }
+            }
+            throw new IllegalArgumentException("Could not locate ResponseBody converter for " + wrappedType);
+        }
+    }
+
+    private static final class ParameterizedTypeImpl implements ParameterizedType {
+        private final Class<?> rawType;
+        private final Type[] typeArguments;
+
+        ParameterizedTypeImpl(Class<?> rawType, Type... typeArguments) {
+            this.rawType = rawType;
+            this.typeArguments = typeArguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return typeArguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ParameterizedType)) return false;
+            ParameterizedType that = (ParameterizedType) o;
+            return that.getOwnerType() == null && rawType.equals(that.getRawType())
+                    && Arrays.equals(typeArguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(typeArguments) ^ rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(rawType.getName()).append('<');
+            for (int i = 0; i < typeArguments.length; i++) {
+                if (i > 0) builder.append(", ");
+                builder.append(typeArguments[i] instanceof Class ? ((Class) typeArguments[i]).getName() : typeArguments[i].toString());
+            }
+            return builder.append('>').toString();
+        }
+    }
+
+    public static class Builder {
+        private final InWrapperConverterFactory inWrapperConverterFactory;
+        private final Map<Class, AsyncUnwrapper> asyncUnwrappers = new HashMap<>();
+
+        /**
+         * @param inWrapperConverterFactory factory providing types and regular unwrappers of wrapper chains
+         */
+        public Builder(InWrapperConverterFactory inWrapperConverterFactory) {
+            if (inWrapperConverterFactory == null) throw new NullPointerException("inWrapperConverterFactory == null");
+            this.inWrapperConverterFactory = inWrapperConverterFactory;
+        }
+
+        /**
+         * Registers asynchronous unwrapper for the class. Unlike regular unwrappers, it is only used for the class itself
+         *
+         * @param wrapperClass class to use the unwrapper for
+         * @param unwrapper    unwrapper instance
+         * @param <W>          wrapper type
+         * @param <T>          wrapped data type
+         */
+        public <W, T> Builder registerAsyncUnwrapper(Class<W> wrapperClass, AsyncUnwrapper<? extends W, T> unwrapper) {
+            asyncUnwrappers.put(wrapperClass, unwrapper);
+            return this;
+        }
+
+        public AsyncInWrapperCallAdapterFactory build() {
+            return new AsyncInWrapperCallAdapterFactory(inWrapperConverterFactory, new HashMap<>(asyncUnwrappers));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.github.amaksoft.inwrapper.async;
+
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Asynchronous counterpart of {@link InWrapperConverterFactory.ResponseUnwrapper}.<br/>
+ * <p>
+ * Use it for wrappers which can't be unwrapped without waiting for something else, e.g. another request.
+ * The returned stage must not block the thread the unwrapper is called on.
+ *
+ * @param <W> response body wrapper
+ * @param <T> wrapped data type
+ */
+public interface AsyncUnwrapper<W, T> {
+    /**
+     * Extracts desired field from response wrapper
+     *
+     * @param wrapper     parsed wrapper instance
+     * @param depth       current wrapper chain depth
+     * @param annotations interface method annotations to parametrize the process (if needed)
+     * @return stage completed with actual data value
+     */
+    CompletionStage<T> unwrap(W wrapper, int depth, Annotation[] annotations);
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.github.amaksoft.inwrapper.async;
+
+import retrofit2.Response;
+
+/**
+ * Completes stages returned by {@link AsyncInWrapperCallAdapterFactory} adapters for non-2xx responses
+ */
+@SuppressWarnings("WeakerAccess")
+public class HttpException extends RuntimeException {
+    private final transient Response<?> response;
+
+    public HttpException(Response<?> response) {
+        super("HTTP " + response.code() + " " + response.message());
+        this.response = response;
+    }
+
+    /**
+     * @return HTTP status code
+     */
+    public int code() {
+        return response.code();
+    }
+
+    /**
+     * @return failed response, its error body is not consumed
+     */
+    public Response<?> response() {
+        return response;
+    }
+}
\ No newline at end of file
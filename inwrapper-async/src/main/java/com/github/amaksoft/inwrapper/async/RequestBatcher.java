@@ -0,0 +1,333 @@
+package com.github.amaksoft.inwrapper.async;
+
+import com.github.amaksoft.inwrapper.InWrapper;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces single item requests into batched calls.<br/>
+ * <p>
+ * Items passed to {@link #submit(Object)} are packed by {@link InWrapperConverterFactory} packers of item wrapper chain
+ * and queued. Once there are max batch size items queued, or the batch window since the first of them has passed,
+ * the queued items are sent in one call created by {@link BatchCall}. The batch envelope itself
+ * (e.g. {@code {"requests":[...]}}) is packed and unwrapped by {@link InWrapper} annotations of the batch interface method,
+ * which should return {@link Call} of a list.<br/>
+ * <p>
+ * Elements of the batched response are matched to items by position, unwrapped by unwrappers of item wrapper chain
+ * and passed to the stages returned by {@link #submit(Object)}. If an element can't be unwrapped, only its stage
+ * is completed exceptionally. If the batched call fails, every stage of the batch is completed with the failure,
+ * {@link HttpException} for non-2xx responses.<br/>
+ * <p>
+ * Item packers are not bound to a call site, since packed items are kept until the batch is sent,
+ * so {@link InWrapperConverterFactory.RecyclingPacker}s never reuse wrappers here.
+ *
+ * @param <T> item type
+ * @param <R> unwrapped response element type
+ */
+@SuppressWarnings("WeakerAccess")
+public final class RequestBatcher<T, R> implements Closeable {
+
+    /**
+     * Creates batched calls, usually a method reference to {@link retrofit2.Retrofit} interface method
+     *
+     * @param <P> packed item type
+     */
+    public interface BatchCall<P> {
+        /**
+         * @param packedItems items packed in their wrappers, in the order of submission
+         * @return call with response elements in the same order as items
+         */
+        Call<? extends List<?>> create(List<P> packedItems);
+    }
+
+    private final InWrapperConverterFactory inWrapperConverterFactory;
+    private final BatchCall<Object> batchCall;
+    private final InWrapperConverterFactory.RequestPacker[] packers;
+    private final InWrapperConverterFactory.ResponseUnwrapper[] unwrappers;
+    private final Annotation[] parameterAnnotations;
+    private final Annotation[] methodAnnotations;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownScheduler;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private List<Pending<R>> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    // incremented every time queued items are taken, so a window flush which couldn't be cancelled skips later batches
+    private long generation;
+    private boolean closed;
+
+    private RequestBatcher(Builder<T, R> builder, ScheduledExecutorService scheduler, boolean ownScheduler) {
+        this.inWrapperConverterFactory = builder.inWrapperConverterFactory;
+        this.batchCall = builder.batchCall;
+        this.packers = inWrapperConverterFactory.resolvePackers(builder.itemWrapperClasses);
+        this.unwrappers = inWrapperConverterFactory.resolveUnwrappers(builder.itemWrapperClasses);
+        this.parameterAnnotations = builder.parameterAnnotations;
+        this.methodAnnotations = builder.methodAnnotations;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.windowNanos = builder.windowNanos;
+        this.scheduler = scheduler;
+        this.ownScheduler = ownScheduler;
+    }
+
+    /**
+     * Packs the item and queues it for the next batch
+     *
+     * @param item item to send
+     * @return stage completed with the unwrapped response element of the item
+     * @throws IllegalStateException      if the batcher is closed
+     * @throws RejectedExecutionException if the batch window flush can't be scheduled, the item is not queued then
+     */
+    public CompletableFuture<R> submit(T item) {
+        // packing failures are the caller's ones, so they are thrown right away
+        Object packedItem = inWrapperConverterFactory.chainPack(item, packers, parameterAnnotations, methodAnnotations);
+        CompletableFuture<R> future = new CompletableFuture<>();
+        List<Pending<R>> batch = null;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException(RequestBatcher.class.getSimpleName() + " is closed");
+            }
+            if (pending.isEmpty() && maxBatchSize > 1) {
+                // scheduled before the item is queued, so a rejected flush leaves nothing behind
+                final long batchGeneration = generation;
+                scheduledFlush = scheduler.schedule(() -> flush(batchGeneration), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            pending.add(new Pending<>(packedItem, future));
+            if (pending.size() >= maxBatchSize) {
+                batch = takePending();
+            }
+        }
+        if (batch != null) {
+            send(batch);
+        }
+        return future;
+    }
+
+    /**
+     * Sends queued items without waiting for the batch window to pass
+     */
+    public void flush() {
+        List<Pending<R>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    /**
+     * Batch window flush, sends queued items only if they are still the batch it was scheduled for
+     *
+     * @param batchGeneration {@link #generation} at the time the flush was scheduled
+     */
+    private void flush(long batchGeneration) {
+        List<Pending<R>> batch;
+        synchronized (lock) {
+            if (batchGeneration != generation) {
+                return;
+            }
+            batch = takePending();
+        }
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    /**
+     * Sends queued items and stops accepting new ones. The scheduler is shut down if it was created by the builder
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        flush();
+        if (ownScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Should be called while holding {@link #lock}
+     *
+     * @return queued items or {@code null} if there are none
+     */
+    private List<Pending<R>> takePending() {
+        if (pending.isEmpty()) {
+            return null;
+        }
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        List<Pending<R>> batch = pending;
+        pending = new ArrayList<>();
+        generation++;
+        return batch;
+    }
+
+    private void send(List<Pending<R>> batch) {
+        List<Object> packedItems = new ArrayList<>(batch.size());
+        for (Pending<R> item : batch) {
+            packedItems.add(item.packedItem);
+        }
+        Call<? extends List<?>> call;
+        try {
+            call = batchCall.create(packedItems);
+        } catch (Throwable e) {
+            failAll(batch, e);
+            return;
+        }
+        enqueue(call, batch);
+    }
+
+    private <L extends List<?>> void enqueue(Call<L> call, final List<Pending<R>> batch) {
+        call.enqueue(new Callback<L>() {
+            @Override
+            public void onResponse(Call<L> call, Response<L> response) {
+                if (!response.isSuccessful()) {
+                    failAll(batch, new HttpException(response));
+                    return;
+                }
+                L elements = response.body();
+                int count = elements != null ? elements.size() : 0;
+                if (count != batch.size()) {
+                    failAll(batch, new IOException("Batched response has " + count + " elements, " + batch.size() + " expected"));
+                    return;
+                }
+                for (int i = 0; i < count; i++) {
+                    CompletableFuture<R> future = batch.get(i).future;
+                    try {
+                        //noinspection unchecked (unwrappers should produce required type)
+                        future.complete((R) inWrapperConverterFactory.chainUnwrap(elements.get(i), unwrappers, methodAnnotations));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Call<L> call, Throwable t) {
+                failAll(batch, t);
+            }
+        });
+    }
+
+    private static <R> void failAll(List<Pending<R>> batch, Throwable error) {
+        for (Pending<R> item : batch) {
+            item.future.completeExceptionally(error);
+        }
+    }
+
+    private static final class Pending<R> {
+        final Object packedItem;
+        final CompletableFuture<R> future;
+
+        Pending(Object packedItem, CompletableFuture<R> future) {
+            this.packedItem = packedItem;
+            this.future = future;
+        }
+    }
+
+    public static class Builder<T, R> {
+        private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+        private static final long DEFAULT_WINDOW_MILLIS = 10;
+        private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+        private final InWrapperConverterFactory inWrapperConverterFactory;
+        private final Class[] itemWrapperClasses;
+        private final BatchCall<Object> batchCall;
+        private Annotation[] parameterAnnotations = NO_ANNOTATIONS;
+        private Annotation[] methodAnnotations = NO_ANNOTATIONS;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private long windowNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_WINDOW_MILLIS);
+        private ScheduledExecutorService scheduler;
+
+        /**
+         * @param inWrapperConverterFactory factory providing packers and unwrappers of item wrapper chain
+         * @param itemWrapperClasses        wrapper chain of every item and response element, as in {@link InWrapper} annotation
+         * @param batchCall                 creates batched calls from packed items
+         * @param <P>                       packed item type
+         */
+        public <P> Builder(InWrapperConverterFactory inWrapperConverterFactory, Class[] itemWrapperClasses, BatchCall<P> batchCall) {
+            if (inWrapperConverterFactory == null) throw new NullPointerException("inWrapperConverterFactory == null");
+            if (itemWrapperClasses == null) throw new NullPointerException("itemWrapperClasses == null");
+            if (batchCall == null) throw new NullPointerException("batchCall == null");
+            this.inWrapperConverterFactory = inWrapperConverterFactory;
+            this.itemWrapperClasses = itemWrapperClasses.clone();
+            //noinspection unchecked (items are packed by the packers of the same chain)
+            this.batchCall = (BatchCall<Object>) batchCall;
+        }
+
+        /**
+         * Sets annotations passed to packers and unwrappers of item wrapper chain, e.g. field names of item wrappers
+         *
+         * @param parameterAnnotations annotations passed to packers as parameter annotations
+         * @param methodAnnotations    annotations passed to packers and unwrappers as method annotations
+         */
+        public Builder<T, R> setAnnotations(Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            this.parameterAnnotations = parameterAnnotations != null ? parameterAnnotations.clone() : NO_ANNOTATIONS;
+            this.methodAnnotations = methodAnnotations != null ? methodAnnotations.clone() : NO_ANNOTATIONS;
+            return this;
+        }
+
+        /**
+         * @param maxBatchSize number of queued items sent right away, without waiting for the batch window to pass
+         */
+        public Builder<T, R> setMaxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize < 1");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param window time queued items wait for more items since the first of them was submitted
+         * @param unit   time unit of {@code window}
+         */
+        public Builder<T, R> setWindow(long window, TimeUnit unit) {
+            if (window < 0) throw new IllegalArgumentException("window < 0");
+            this.windowNanos = unit.toNanos(window);
+            return this;
+        }
+
+        /**
+         * Sets scheduler for batch window timeouts. If not set, a single daemon thread scheduler is created,
+         * which is shut down on {@link RequestBatcher#close()}
+         *
+         * @param scheduler scheduler instance
+         */
+        public Builder<T, R> setScheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public RequestBatcher<T, R> build() {
+            if (scheduler != null) {
+                return new RequestBatcher<>(this, scheduler, false);
+            }
+            ScheduledExecutorService ownScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, RequestBatcher.class.getSimpleName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            return new RequestBatcher<>(this, ownScheduler, true);
+        }
+    }
+}
\ No newline at end of file
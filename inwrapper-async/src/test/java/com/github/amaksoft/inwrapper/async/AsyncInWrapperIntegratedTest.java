@@ -0,0 +1,147 @@
+package com.github.amaksoft.inwrapper.async;
+
+import com.github.amaksoft.inwrapper.InWrapper;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldStreamingUnwrapperFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import com.google.gson.Gson;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.GET;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.fail;
+
+/**
+ * Integrated tests for {@link AsyncInWrapperCallAdapterFactory}
+ * (using actual {@link Retrofit} setup)
+ */
+public class AsyncInWrapperIntegratedTest {
+
+    static class TestWrapper<T> {
+        T value;
+    }
+
+    static class RemoteWrapper<T> {
+        T value;
+    }
+
+    public static class TestUnwrapper<T> implements InWrapperConverterFactory.ResponseUnwrapper<TestWrapper<T>, T> {
+        @Override
+        public T unwrap(TestWrapper<T> wrapper, int depth, Annotation[] annotations) {
+            return wrapper.value;
+        }
+    }
+
+    /**
+     * Completes on another thread, as if the value was fetched from somewhere else
+     */
+    public static class RemoteUnwrapper<T> implements AsyncUnwrapper<RemoteWrapper<T>, T> {
+        @Override
+        public CompletionStage<T> unwrap(final RemoteWrapper<T> wrapper, int depth, Annotation[] annotations) {
+            return CompletableFuture.supplyAsync(() -> wrapper.value);
+        }
+    }
+
+    interface ApiService {
+        @GET("/")
+        @InWrapper({TestWrapper.class})
+        CompletionStage<String> getData();
+
+        @GET("/")
+        @InWrapper({RemoteWrapper.class, TestWrapper.class})
+        CompletableFuture<String> getRemoteData();
+
+        @GET("/")
+        @InWrapper({SingleFieldWrapper.class})
+        AsyncElements<Integer> getItems();
+    }
+
+    private static final Gson gson = new Gson();
+
+    @Rule
+    public final MockWebServer mockWebServer = new MockWebServer();
+
+    private ApiService apiService;
+
+    @Before
+    public void setUp() {
+        InWrapperConverterFactory inWrapperConverterFactory = new InWrapperConverterFactory.Builder()
+                .registerUnwrapper(TestWrapper.class, new TestUnwrapper<>())
+                .registerStreamingUnwrapperFactory(new SingleFieldStreamingUnwrapperFactory(gson))
+                .build();
+        AsyncInWrapperCallAdapterFactory asyncFactory = new AsyncInWrapperCallAdapterFactory.Builder(inWrapperConverterFactory)
+                .registerAsyncUnwrapper(RemoteWrapper.class, new RemoteUnwrapper<>())
+                .build();
+
+        Retrofit retrofit = new Retrofit.Builder()
+                .addCallAdapterFactory(asyncFactory)
+                .addConverterFactory(asyncFactory.converterFactory())
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(mockWebServer.url("/"))
+                .build();
+
+        apiService = retrofit.create(ApiService.class);
+    }
+
+    @Test
+    public void testCompletionStage() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"value\":\"RESPONSE\"}"));
+
+        String result = apiService.getData().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertThat("Response value mismatch", result, is(equalTo("RESPONSE")));
+    }
+
+    @Test
+    public void testAsyncUnwrapper() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"value\":{\"value\":\"RESPONSE\"}}"));
+
+        String result = apiService.getRemoteData().get(5, TimeUnit.SECONDS);
+        assertThat("Response value mismatch", result, is(equalTo("RESPONSE")));
+    }
+
+    @Test
+    public void testHttpError() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        try {
+            apiService.getRemoteData().get(5, TimeUnit.SECONDS);
+            fail("Exception expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(HttpException.class)));
+            assertThat(((HttpException) e.getCause()).code(), is(equalTo(500)));
+        }
+    }
+
+    @Test
+    public void testForEach() throws Exception {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add(i);
+        }
+        mockWebServer.enqueue(new MockResponse().setBody("{\"items\":" + gson.toJson(expected) + "}"));
+
+        List<Integer> result = new ArrayList<>();
+        long count = apiService.getItems().forEach(result::add).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        assertThat("Element count mismatch", count, is(equalTo(1000L)));
+        assertThat("Elements mismatch", result, is(equalTo(expected)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.github.amaksoft.inwrapper.async;
+
+import com.github.amaksoft.inwrapper.InWrapper;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapperTypeAdapterFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.POST;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link RequestBatcher} (using actual {@link Retrofit} setup)
+ */
+public class RequestBatcherTest {
+
+    interface BatchService {
+        @POST("/batch")
+        @InWrapper({SingleFieldWrapper.class})
+        Call<List<SingleFieldWrapper<String>>> batch(@Body @InWrapper({SingleFieldWrapper.class})
+                                                     @SingleFieldWrapper.FieldName("requests") List<SingleFieldWrapper<Integer>> requests);
+    }
+
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new SingleFieldWrapperTypeAdapterFactory())
+            .create();
+
+    @Rule
+    public final MockWebServer mockWebServer = new MockWebServer();
+
+    private InWrapperConverterFactory inWrapperConverterFactory;
+    private BatchService batchService;
+
+    @Before
+    public void setUp() {
+        inWrapperConverterFactory = new InWrapperConverterFactory.Builder()
+                .registerPacker(SingleFieldWrapper.class, new SingleFieldWrapper.Packer<>())
+                .registerUnwrapper(SingleFieldWrapper.class, new SingleFieldWrapper.Unwrapper<>())
+                .build();
+
+        batchService = new Retrofit.Builder()
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(mockWebServer.url("/"))
+                .build()
+                .create(BatchService.class);
+    }
+
+    private RequestBatcher.Builder<Integer, String> batcherBuilder() {
+        return new RequestBatcher.Builder<Integer, String>(inWrapperConverterFactory, new Class[]{SingleFieldWrapper.class}, batchService::batch);
+    }
+
+    private RequestBatcher.Builder<Integer, String> countingBatcherBuilder(final AtomicInteger batchCalls) {
+        return new RequestBatcher.Builder<Integer, String>(inWrapperConverterFactory, new Class[]{SingleFieldWrapper.class},
+                (List<SingleFieldWrapper<Integer>> requests) -> {
+                    batchCalls.incrementAndGet();
+                    return batchService.batch(requests);
+                });
+    }
+
+    private static List<String> await(List<CompletableFuture<String>> futures) throws Exception {
+        List<String> results = new ArrayList<>();
+        for (CompletableFuture<String> future : futures) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    @Test
+    public void testBatchBySize() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"responses\":[{\"data\":\"one\"},{\"data\":\"two\"},{\"data\":\"three\"}]}"));
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        try (RequestBatcher<Integer, String> batcher = batcherBuilder().setMaxBatchSize(3).setWindow(1, TimeUnit.MINUTES).build()) {
+            for (int i = 1; i <= 3; i++) {
+                futures.add(batcher.submit(i));
+            }
+            assertThat("Responses mismatch", await(futures), is(equalTo(Arrays.asList("one", "two", "three"))));
+        }
+
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertThat("Batched request body mismatch", request.getBody().readUtf8(),
+                is(equalTo("{\"requests\":[{\"data\":1},{\"data\":2},{\"data\":3}]}")));
+        assertThat("Single batched call expected", mockWebServer.getRequestCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testBatchByWindow() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"responses\":[{\"data\":\"one\"},{\"data\":\"two\"}]}"));
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        try (RequestBatcher<Integer, String> batcher = batcherBuilder().setWindow(100, TimeUnit.MILLISECONDS).build()) {
+            futures.add(batcher.submit(1));
+            futures.add(batcher.submit(2));
+            assertThat("Responses mismatch", await(futures), is(equalTo(Arrays.asList("one", "two"))));
+        }
+        assertThat("Single batched call expected", mockWebServer.getRequestCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testHttpErrorFailsBatch() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        try (RequestBatcher<Integer, String> batcher = batcherBuilder().setMaxBatchSize(2).build()) {
+            CompletableFuture<String> first = batcher.submit(1);
+            CompletableFuture<String> second = batcher.submit(2);
+            for (CompletableFuture<String> future : Arrays.asList(first, second)) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    fail("Exception expected");
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause(), is(instanceOf(HttpException.class)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testElementCountMismatch() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"responses\":[{\"data\":\"one\"}]}"));
+
+        try (RequestBatcher<Integer, String> batcher = batcherBuilder().setMaxBatchSize(2).build()) {
+            CompletableFuture<String> first = batcher.submit(1);
+            batcher.submit(2);
+            try {
+                first.get(5, TimeUnit.SECONDS);
+                fail("Exception expected");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), is(instanceOf(IOException.class)));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitAfterClose() {
+        RequestBatcher<Integer, String> batcher = batcherBuilder().build();
+        batcher.close();
+        batcher.submit(1);
+    }
+
+    @Test
+    public void testRejectedWindowFlushLeavesNothingQueued() throws Exception {
+        AtomicInteger batchCalls = new AtomicInteger();
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.shutdown();
+        try (RequestBatcher<Integer, String> batcher = countingBatcherBuilder(batchCalls).setScheduler(scheduler).build()) {
+            try {
+                batcher.submit(1);
+                fail("Exception expected");
+            } catch (RejectedExecutionException e) {
+                // expected
+            }
+            batcher.flush();
+        }
+        assertThat("Rejected item must not be sent", batchCalls.get(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testStaleWindowFlushSkipsNextBatch() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"responses\":[{\"data\":\"one\"},{\"data\":\"two\"}]}"));
+        mockWebServer.enqueue(new MockResponse().setBody("{\"responses\":[{\"data\":\"three\"}]}"));
+
+        AtomicInteger batchCalls = new AtomicInteger();
+        CapturingScheduler scheduler = new CapturingScheduler();
+        try (RequestBatcher<Integer, String> batcher = countingBatcherBuilder(batchCalls).setMaxBatchSize(2).setWindow(1, TimeUnit.MINUTES)
+                .setScheduler(scheduler).build()) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            futures.add(batcher.submit(1));
+            futures.add(batcher.submit(2));
+            assertThat("Responses mismatch", await(futures), is(equalTo(Arrays.asList("one", "two"))));
+
+            CompletableFuture<String> third = batcher.submit(3);
+            assertThat("Window flush per batch expected", scheduler.flushes.size(), is(equalTo(2)));
+            // the first batch window flush runs as if it had started before the batch was sent by size
+            scheduler.flushes.get(0).run();
+            assertThat("Stale window flush must not send the next batch", batchCalls.get(), is(equalTo(1)));
+
+            scheduler.flushes.get(1).run();
+            assertThat("Response mismatch", third.get(5, TimeUnit.SECONDS), is(equalTo("three")));
+        } finally {
+            scheduler.shutdown();
+        }
+        assertThat("Two batched calls expected", batchCalls.get(), is(equalTo(2)));
+    }
+
+    /**
+     * Keeps scheduled tasks to be run by the test, regardless of their cancellation
+     */
+    private static final class CapturingScheduler extends ScheduledThreadPoolExecutor {
+        final List<Runnable> flushes = new ArrayList<>();
+
+        CapturingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            flushes.add(command);
+            return super.schedule(() -> {
+            }, delay, unit);
+        }
+    }
+}
\ No newline at end of file
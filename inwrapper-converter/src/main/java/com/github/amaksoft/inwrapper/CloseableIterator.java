@@ -0,0 +1,18 @@
+package com.github.amaksoft.inwrapper;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * {@link Iterator} over elements decoded incrementally from response body.<br/>
+ * <p>
+ * Declare {@link retrofit2.Retrofit} interface method annotated with {@link InWrapper} as returning {@code CloseableIterator<T>}
+ * to process large wrapped arrays element by element, without holding the whole list in memory.
+ * Supported by streaming unwrappers only, see {@link InWrapperConverterFactory.StreamingUnwrapperFactory}.
+ * <p>
+ * Response body is closed when the iterator is exhausted. If iteration is abandoned, {@link #close()} must be called.
+ *
+ * @param <T> element type
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+}
@@ -0,0 +1,146 @@
+package com.github.amaksoft.inwrapper;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Listener for {@link InWrapperConverterFactory} converters instrumentation.
+ * Register using {@link InWrapperConverterFactory.Builder#setConverterMetrics(ConverterMetrics)}.<br/>
+ * <p>
+ * Callbacks are invoked on the calling thread for every conversion, so implementations must be thread safe and cheap.
+ * When no listener is registered ({@link #NONE}), converters are not instrumented at all.
+ *
+ * @see HistogramConverterMetrics for the bundled implementation
+ */
+public interface ConverterMetrics {
+
+    /**
+     * No-op listener, used by default
+     */
+    ConverterMetrics NONE = new ConverterMetrics() {
+        @Override
+        public void onResponse(CallSite callSite, long deserializeNanos, long unwrapNanos, long contentLength) {
+        }
+
+        @Override
+        public void onRequest(CallSite callSite, long packNanos, long serializeNanos, long contentLength) {
+        }
+
+        @Override
+        public void onFailure(CallSite callSite, Phase phase, Throwable error) {
+        }
+    };
+
+    /**
+     * Called after response body is successfully converted.
+     * For streaming unwrappers both phases are done at once, so the whole time is reported as {@code deserializeNanos}.
+     * {@link CloseableIterator} results are reported once the iterator is over or closed, including the time spent
+     * in its {@code hasNext()} and {@code next()}, failures while iterating are reported as {@link Phase#DESERIALIZE} ones
+     *
+     * @param callSite         converter call site
+     * @param deserializeNanos time spent in deserialization of wrapped data by the next converter
+     * @param unwrapNanos      time spent in {@link InWrapperConverterFactory.ResponseUnwrapper} chain
+     * @param contentLength    response body length in bytes, {@code -1} if unknown
+     */
+    void onResponse(CallSite callSite, long deserializeNanos, long unwrapNanos, long contentLength);
+
+    /**
+     * Called after request body is successfully created.
+     * For streaming packers data is serialized when the body is written, so only the time of body creation is reported as {@code serializeNanos}
+     *
+     * @param callSite       converter call site
+     * @param packNanos      time spent in {@link InWrapperConverterFactory.RequestPacker} chain
+     * @param serializeNanos time spent in serialization of wrapped data by the next converter
+     * @param contentLength  request body length in bytes, {@code -1} if unknown
+     */
+    void onRequest(CallSite callSite, long packNanos, long serializeNanos, long contentLength);
+
+    /**
+     * Called when conversion fails
+     *
+     * @param callSite converter call site
+     * @param phase    conversion phase that failed
+     * @param error    the error, rethrown to the caller after this call
+     */
+    void onFailure(CallSite callSite, Phase phase, Throwable error);
+
+    /**
+     * Conversion phases
+     */
+    enum Phase {
+        DESERIALIZE, UNWRAP, PACK, SERIALIZE
+    }
+
+    /**
+     * Conversion direction
+     */
+    enum Direction {
+        REQUEST, RESPONSE
+    }
+
+    /**
+     * Describes a converter created by {@link InWrapperConverterFactory}.
+     * Retrofit creates converters once per service method, so call sites identify service methods (by identity).
+     */
+    final class CallSite {
+        private final Direction direction;
+        private final Type dataType;
+        private final Class[] wrapperClasses;
+        private final Annotation[] annotations;
+
+        CallSite(Direction direction, Type dataType, Class[] wrapperClasses, Annotation[] annotations) {
+            this.direction = direction;
+            this.dataType = dataType;
+            this.wrapperClasses = wrapperClasses.clone();
+            this.annotations = annotations.clone();
+        }
+
+        public Direction getDirection() {
+            return direction;
+        }
+
+        /**
+         * @return actual (unwrapped) data type
+         */
+        public Type getDataType() {
+            return dataType;
+        }
+
+        /**
+         * @return wrapper classes chain
+         */
+        public Class[] getWrapperClasses() {
+            return wrapperClasses.clone();
+        }
+
+        /**
+         * @return wrapper chain depth
+         */
+        public int getDepth() {
+            return wrapperClasses.length;
+        }
+
+        /**
+         * @return interface method annotations, e.g. to find out HTTP method and path
+         */
+        public Annotation[] getAnnotations() {
+            return annotations.clone();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(direction.name()).append(' ');
+            for (Annotation annotation : annotations) {
+                if (!(annotation instanceof InWrapper)) {
+                    sb.append(annotation).append(' ');
+                }
+            }
+            sb.append(dataType instanceof Class ? ((Class) dataType).getName() : dataType.toString()).append(" in [");
+            for (int i = 0; i < wrapperClasses.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(wrapperClasses[i].getSimpleName());
+            }
+            return sb.append(']').toString();
+        }
+    }
+}
\ No newline at end of file
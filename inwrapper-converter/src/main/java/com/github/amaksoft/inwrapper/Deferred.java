@@ -0,0 +1,71 @@
+package com.github.amaksoft.inwrapper;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+
+import java.io.IOException;
+
+/**
+ * Lazily unwrapped response data.<br/>
+ * <p>
+ * Declare {@link retrofit2.Retrofit} interface method annotated with {@link InWrapper} as returning {@code Deferred<T>}
+ * instead of {@code T}, and the response body will only be retained as raw bytes. Wrapped data is deserialized and unwrapped
+ * on the first {@link #get()} call, so responses that are discarded after a cheap check (status code, headers or {@link #body()})
+ * never pay for deserialization.
+ * <p>
+ * Raw bytes are released once the value is materialized.
+ *
+ * @param <T> actual data type
+ */
+public final class Deferred<T> {
+    private final MediaType contentType;
+    private final Converter<ResponseBody, T> converter;
+
+    private byte[] bytes;
+    private T value;
+    private boolean materialized;
+
+    Deferred(MediaType contentType, byte[] bytes, Converter<ResponseBody, T> converter) {
+        this.contentType = contentType;
+        this.bytes = bytes;
+        this.converter = converter;
+    }
+
+    /**
+     * Deserializes and unwraps response data on first call, returns the same value afterwards
+     *
+     * @return actual data
+     * @throws IOException if deserialization fails. Failed conversion will be retried on the next call
+     */
+    public synchronized T get() throws IOException {
+        if (!materialized) {
+            value = converter.convert(ResponseBody.create(contentType, bytes));
+            materialized = true;
+            bytes = null;
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether data has already been deserialized
+     *
+     * @return {@code true} if {@link #get()} was successfully called at least once
+     */
+    public synchronized boolean isMaterialized() {
+        return materialized;
+    }
+
+    /**
+     * Creates a view over raw response body, e.g. for cheap checks without full deserialization
+     *
+     * @return response body backed by retained bytes
+     * @throws IllegalStateException if data has already been materialized and raw bytes released
+     */
+    public synchronized ResponseBody body() {
+        if (materialized) {
+            throw new IllegalStateException("Response data has already been materialized, raw body is released");
+        }
+        return ResponseBody.create(contentType, bytes);
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.amaksoft.inwrapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a wrapper class for compile-time generation of its {@link InWrapperConverterFactory.ResponseUnwrapper},
+ * {@link InWrapperConverterFactory.RequestPacker} and {@link InWrapperConverterFactory.TypeResolver}
+ * by the inwrapper annotation processor. Type resolver is only generated for classes the default one can't resolve,
+ * i.e. with several type parameters and no {@link WrappedTypeParameter} annotation.<br/>
+ * <p>
+ * The class has to be public and have a non-private field or no-argument method annotated with {@link WrappedData}.
+ * A packer is generated if the class also has a non-private constructor taking the wrapped data as its only argument.
+ * Generated handlers are collected in a {@link InWrapperConverterFactory.HandlerRegistry}
+ * to be registered with {@link InWrapperConverterFactory.Builder#registerHandlers(InWrapperConverterFactory.HandlerRegistry)}.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateHandlers {
+}
\ No newline at end of file
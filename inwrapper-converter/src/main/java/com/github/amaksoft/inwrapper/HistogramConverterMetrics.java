@@ -0,0 +1,101 @@
+package com.github.amaksoft.inwrapper;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ConverterMetrics} implementation collecting {@link LatencyHistogram}s per call site (i.e. per service method)
+ */
+@SuppressWarnings("WeakerAccess")
+public class HistogramConverterMetrics implements ConverterMetrics {
+
+    private final ConcurrentMap<CallSite, Stats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public void onResponse(CallSite callSite, long deserializeNanos, long unwrapNanos, long contentLength) {
+        Stats siteStats = getStats(callSite);
+        siteStats.deserializeNanos.record(deserializeNanos);
+        siteStats.unwrapNanos.record(unwrapNanos);
+        siteStats.payloadBytes.record(contentLength);
+    }
+
+    @Override
+    public void onRequest(CallSite callSite, long packNanos, long serializeNanos, long contentLength) {
+        Stats siteStats = getStats(callSite);
+        siteStats.packNanos.record(packNanos);
+        siteStats.serializeNanos.record(serializeNanos);
+        siteStats.payloadBytes.record(contentLength);
+    }
+
+    @Override
+    public void onFailure(CallSite callSite, Phase phase, Throwable error) {
+        getStats(callSite).failures.incrementAndGet();
+    }
+
+    /**
+     * Returns statistics for a call site, creating empty one if needed
+     *
+     * @param callSite converter call site
+     * @return call site statistics
+     */
+    public Stats getStats(CallSite callSite) {
+        Stats siteStats = stats.get(callSite);
+        if (siteStats == null) {
+            Stats newStats = new Stats();
+            siteStats = stats.putIfAbsent(callSite, newStats);
+            if (siteStats == null) {
+                siteStats = newStats;
+            }
+        }
+        return siteStats;
+    }
+
+    /**
+     * @return live view of statistics for all call sites seen so far
+     */
+    public Map<CallSite, Stats> getAllStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Statistics of a single call site. Request converters only fill pack/serialize histograms, response ones deserialize/unwrap.
+     */
+    public static final class Stats {
+        private final LatencyHistogram deserializeNanos = new LatencyHistogram();
+        private final LatencyHistogram unwrapNanos = new LatencyHistogram();
+        private final LatencyHistogram packNanos = new LatencyHistogram();
+        private final LatencyHistogram serializeNanos = new LatencyHistogram();
+        private final LatencyHistogram payloadBytes = new LatencyHistogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        public LatencyHistogram getDeserializeNanos() {
+            return deserializeNanos;
+        }
+
+        public LatencyHistogram getUnwrapNanos() {
+            return unwrapNanos;
+        }
+
+        public LatencyHistogram getPackNanos() {
+            return packNanos;
+        }
+
+        public LatencyHistogram getSerializeNanos() {
+            return serializeNanos;
+        }
+
+        /**
+         * @return body sizes histogram, bodies of unknown length are not counted
+         */
+        public LatencyHistogram getPayloadBytes() {
+            return payloadBytes;
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+    }
+}
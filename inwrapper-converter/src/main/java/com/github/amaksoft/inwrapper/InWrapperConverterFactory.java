@@ -9,10 +9,28 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Unwraps response class and returns the desired field
@@ -38,25 +56,110 @@ import java.util.Map;
  * <li>If wrapper is a generic class with exactly one type parameter,
  * the default resolution strategy is to pass the type of wrapped data as type parameter for further processing</li>
  * </ul>
- * If wrapper is a generic class with more than one type parameter, or if you want to customize type parameter resolution
- * for other cases, you need to implement a {@link TypeResolver} and register it in the {@link Builder}
+ * If wrapper is a generic class with more than one type parameter, declare its data type parameter with {@link WrappedTypeParameter}.
+ * To customize type parameter resolution for other cases, implement a {@link TypeResolver} and register it in the {@link Builder}
+ * <p>
+ * If wrapper format allows extracting data without deserializing the whole wrapper, a {@link StreamingUnwrapperFactory}
+ * can be registered in the {@link Builder}. Streaming unwrappers are tried before the regular
+ * {@link ResponseUnwrapper} chain. Same goes for {@link StreamingPackerFactory}, which allows writing wrappers
+ * around request data directly to request body instead of creating wrapper objects with {@link RequestPacker} chain.
+ * <p>
+ * Response data may be unwrapped lazily by declaring {@link Deferred} as the method return type, see {@link Deferred} for details.
+ * <p>
+ * Packers, unwrappers and type resolvers may also be registered after the factory is built, even while it is in use,
+ * see {@link #registerUnwrapper(Class, ResponseUnwrapper)}.
+ * <p>
+ * Converters can be instrumented by setting {@link ConverterMetrics} in the {@link Builder}.
+ * <p>
+ * Converters for a service interface can be created and validated in advance with {@link #warmUp(Retrofit, Class)}.
+ * <p>
+ * Unwrapped data of methods annotated with {@link Memoized} can be cached by body digest, see {@link UnwrappedResponseCache}.
+ * <p>
+ * Oversized response bodies can be kept out of the heap by spooling them to files, see {@link ResponseSpooler}.
  */
 @SuppressWarnings("WeakerAccess") // leave methods available for tests, we only have two classes in the package anyway
 public class InWrapperConverterFactory extends Converter.Factory {
 
-    private static final TypeResolver DEFAULT_TYPE_RESOLVER = new DefaultTypeResolver();
-
-    private final Map<Class, ResponseUnwrapper> responseUnwrappers;
-    private final Map<Class, RequestPacker> requestPackers;
-    private final Map<Class, TypeResolver> typeResolvers;
+    /**
+     * Current immutable snapshot of registered handlers. Replaced as a whole on registration, so readers never lock
+     */
+    private volatile Registry registry;
+    private final List<StreamingUnwrapperFactory> streamingUnwrapperFactories;
+    private final List<StreamingPackerFactory> streamingPackerFactories;
+    private final ConverterMetrics metrics;
+    @Nullable
+    private final UnwrappedResponseCache responseCache;
+    @Nullable
+    private final ResponseSpooler responseSpooler;
+    /**
+     * Caches type arguments of wrapper classes, so it is kept per factory instead of being static
+     */
+    private final TypeResolver defaultTypeResolver = new DefaultTypeResolver();
 
     /**
      * Package private, not supposed to be used from outside. Please use {@link Builder}
      */
-    InWrapperConverterFactory(Map<Class, ResponseUnwrapper> responseUnwrappers, Map<Class, RequestPacker> requestPackers, Map<Class, TypeResolver> typeResolvers) {
-        this.responseUnwrappers = responseUnwrappers;
-        this.requestPackers = requestPackers;
-        this.typeResolvers = typeResolvers;
+    InWrapperConverterFactory(Map<Class, ResponseUnwrapper> responseUnwrappers, Map<Class, RequestPacker> requestPackers, Map<Class, TypeResolver> typeResolvers,
+                              List<StreamingUnwrapperFactory> streamingUnwrapperFactories, List<StreamingPackerFactory> streamingPackerFactories,
+                              ConverterMetrics metrics, @Nullable UnwrappedResponseCache responseCache, @Nullable ResponseSpooler responseSpooler) {
+        this.registry = new Registry(responseUnwrappers, requestPackers, typeResolvers);
+        this.streamingUnwrapperFactories = Collections.unmodifiableList(new ArrayList<>(streamingUnwrapperFactories));
+        this.streamingPackerFactories = Collections.unmodifiableList(new ArrayList<>(streamingPackerFactories));
+        this.metrics = metrics;
+        this.responseCache = responseCache;
+        this.responseSpooler = responseSpooler;
+    }
+
+    /**
+     * Registers a {@link ResponseUnwrapper} at runtime. Safe to call concurrently with converter creation and conversion.<br/>
+     * <p>
+     * Converters resolve their handlers once, when created, so the new unwrapper
+     * is only used by converters created after this call.
+     *
+     * @param wrapperClass      class to use the unwrapper for
+     * @param responseUnwrapper the unwrapper instance
+     * @param <W>               wrapper type
+     * @param <T>               wrapped data type
+     */
+    public synchronized <W, T> InWrapperConverterFactory registerUnwrapper(Class<W> wrapperClass, ResponseUnwrapper<? extends W, T> responseUnwrapper) {
+        Registry current = registry;
+        Map<Class, ResponseUnwrapper> responseUnwrappers = new HashMap<>(current.responseUnwrappers.handlers);
+        responseUnwrappers.put(wrapperClass, responseUnwrapper);
+        registry = new Registry(responseUnwrappers, current.requestPackers.handlers, current.typeResolvers);
+        return this;
+    }
+
+    /**
+     * Registers a {@link RequestPacker} at runtime. Safe to call concurrently with converter creation and conversion.<br/>
+     * <p>
+     * Converters resolve their handlers once, when created, so the new packer
+     * is only used by converters created after this call.
+     *
+     * @param wrapperClass  class to use the packer for
+     * @param requestPacker the packer instance
+     * @param <W>           wrapper type
+     * @param <T>           wrapped data type
+     */
+    public synchronized <W, T> InWrapperConverterFactory registerPacker(Class<W> wrapperClass, RequestPacker<? extends W, T> requestPacker) {
+        Registry current = registry;
+        Map<Class, RequestPacker> requestPackers = new HashMap<>(current.requestPackers.handlers);
+        requestPackers.put(wrapperClass, requestPacker);
+        registry = new Registry(current.responseUnwrappers.handlers, requestPackers, current.typeResolvers);
+        return this;
+    }
+
+    /**
+     * Registers a {@link TypeResolver} at runtime. Safe to call concurrently with converter creation and conversion.
+     *
+     * @param wrapperClass class to resolve type for
+     * @param typeResolver the type resolver instance
+     */
+    public synchronized InWrapperConverterFactory registerTypeResolver(Class wrapperClass, TypeResolver typeResolver) {
+        Registry current = registry;
+        Map<Class, TypeResolver> typeResolvers = new HashMap<>(current.typeResolvers);
+        typeResolvers.put(wrapperClass, typeResolver);
+        registry = new Registry(current.responseUnwrappers.handlers, current.requestPackers.handlers, typeResolvers);
+        return this;
     }
 
     /**
@@ -69,12 +172,50 @@ public class InWrapperConverterFactory extends Converter.Factory {
         final InWrapper wrapperAnno = findWrapperAnnotation(parameterAnnotations);
 
         if (wrapperAnno != null) {
-            Type wrappedType = getWrappedType(type, wrapperAnno.value(), parameterAnnotations, methodAnnotations);
+            Converter<?, ?> warmedUp = findWarmedUpConverter(retrofit, type, parameterAnnotations, methodAnnotations);
+            if (warmedUp != null) {
+                //noinspection unchecked (stored by warmUp() for the same key)
+                return (Converter<?, RequestBody>) warmedUp;
+            }
+
+            // InWrapper#value() clones the array on every access, so read it once per converter
+            Class[] wrapperClasses = wrapperAnno.value();
+            ConverterMetrics.CallSite callSite = metrics != ConverterMetrics.NONE
+                    ? new ConverterMetrics.CallSite(ConverterMetrics.Direction.REQUEST, type, wrapperClasses, methodAnnotations)
+                    : null;
+
+            Converter<?, RequestBody> streamingConverter = findStreamingPacker(type, wrapperClasses, parameterAnnotations, methodAnnotations, retrofit);
+            if (streamingConverter != null) {
+                if (callSite != null) {
+                    //noinspection unchecked (converter accepts actual data type)
+                    return InstrumentedConverters.streamingPacking((Converter<Object, RequestBody>) streamingConverter, metrics, callSite);
+                }
+                return streamingConverter;
+            }
+
+            final RequestPacker[] packers = bindPackers(resolvePackers(wrapperClasses), parameterAnnotations, methodAnnotations);
+            final RecyclingPacker[] recyclingPackers = findRecyclingPackers(packers);
+            Type wrappedType = getWrappedType(type, wrapperClasses, parameterAnnotations, methodAnnotations);
             final Converter<Object, RequestBody> wrappedDelegate = retrofit.nextRequestBodyConverter(this, wrappedType, parameterAnnotations, methodAnnotations);
+            if (callSite != null) {
+                return InstrumentedConverters.packing(this, wrappedDelegate, packers, recyclingPackers, parameterAnnotations, methodAnnotations, metrics, callSite);
+            }
+            if (recyclingPackers != null) {
+                return new Converter<Object, RequestBody>() {
+                    @Override
+                    public RequestBody convert(@Nonnull Object value) throws IOException {
+                        try {
+                            return wrappedDelegate.convert(chainPack(value, packers, parameterAnnotations, methodAnnotations));
+                        } finally {
+                            recycle(recyclingPackers);
+                        }
+                    }
+                };
+            }
             return new Converter<Object, RequestBody>() {
                 @Override
                 public RequestBody convert(@Nonnull Object value) throws IOException {
-                    return wrappedDelegate.convert(chainPack(value, wrapperAnno.value(), parameterAnnotations, methodAnnotations));
+                    return wrappedDelegate.convert(chainPack(value, packers, parameterAnnotations, methodAnnotations));
                 }
             };
         }
@@ -92,20 +233,182 @@ public class InWrapperConverterFactory extends Converter.Factory {
 
         final InWrapper wrapperAnno = findWrapperAnnotation(annotations);
         if (wrapperAnno != null) {
-            Type wrappedType = getWrappedType(type, wrapperAnno.value(), null, annotations);
-            final Converter<ResponseBody, ?> wrappedDelegate = retrofit.nextResponseBodyConverter(this, wrappedType, annotations);
-            return new Converter<ResponseBody, Object>() {
-                @Override
-                public Object convert(@Nonnull ResponseBody body) throws IOException {
-                    return chainUnwrap(wrappedDelegate.convert(body), wrapperAnno.value(), annotations);
-                }
-            };
+            Converter<?, ?> warmedUp = findWarmedUpConverter(retrofit, type, null, annotations);
+            if (warmedUp != null) {
+                //noinspection unchecked (stored by warmUp() for the same key)
+                return (Converter<ResponseBody, ?>) warmedUp;
+            }
+
+            Class[] wrapperClasses = wrapperAnno.value();
+
+            if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Deferred.class) {
+                Type dataType = ((ParameterizedType) type).getActualTypeArguments()[0];
+                final Converter<ResponseBody, ?> unwrappingConverter = memoizeIfRequested(
+                        createUnwrappingConverter(dataType, wrapperClasses, annotations, retrofit), dataType, annotations);
+                return new Converter<ResponseBody, Deferred<?>>() {
+                    @Override
+                    public Deferred<?> convert(@Nonnull ResponseBody body) throws IOException {
+                        //noinspection unchecked (converter is created for the deferred data type)
+                        return new Deferred<>(body.contentType(), body.bytes(), (Converter<ResponseBody, Object>) unwrappingConverter);
+                    }
+                };
+            }
+
+            Converter<ResponseBody, ?> converter = createUnwrappingConverter(type, wrapperClasses, annotations, retrofit);
+            Converter<ResponseBody, ?> memoizing = memoizeIfRequested(converter, type, annotations);
+            // memoized bodies are read into memory for digest anyway
+            if (memoizing == converter && responseSpooler != null) {
+                return responseSpooler.spooling(converter);
+            }
+            return memoizing;
         }
 
         // If method is not annotated with InWrapper, just ignore this converter
         return null;
     }
 
+    /**
+     * Creates and caches converters for all the methods of {@code service} interface using {@link InWrapper} annotations,
+     * so that first calls of these methods don't pay for converter creation.
+     * Also validates the configuration: all the errors are collected and reported at once.<br/>
+     * <p>
+     * Converters are cached for given {@link Retrofit} instance and returned when it asks for them. Runtime registration
+     * of handlers drops the cache, since converters created before it may use outdated handlers, so call this method again after it.
+     *
+     * @param retrofit {@link Retrofit} instance the service is created with
+     * @param service  service interface
+     * @throws IllegalArgumentException if converters could not be created for some methods,
+     *                                  the exceptions thrown for every method are added as suppressed exceptions
+     */
+    public void warmUp(Retrofit retrofit, Class<?> service) {
+        Map<ConverterKey, Converter<?, ?>> warmedUpConverters = registry.warmedUpConverters(retrofit);
+        List<Throwable> errors = new ArrayList<>();
+
+        for (Method method : service.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            Annotation[] methodAnnotations = method.getAnnotations();
+
+            if (findWrapperAnnotation(methodAnnotations) != null) {
+                try {
+                    Type responseType = retrofit.callAdapter(method.getGenericReturnType(), methodAnnotations).responseType();
+                    Converter<ResponseBody, ?> converter = responseBodyConverter(responseType, methodAnnotations, retrofit);
+                    warmedUpConverters.put(new ConverterKey(responseType, null, methodAnnotations), converter);
+                } catch (RuntimeException e) {
+                    errors.add(new IllegalArgumentException(service.getSimpleName() + "." + method.getName() + "(): " + e.getMessage(), e));
+                }
+            }
+
+            Type[] parameterTypes = method.getGenericParameterTypes();
+            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (findWrapperAnnotation(parameterAnnotations[i]) == null) {
+                    continue;
+                }
+                try {
+                    Converter<?, RequestBody> converter = requestBodyConverter(parameterTypes[i], parameterAnnotations[i], methodAnnotations, retrofit);
+                    warmedUpConverters.put(new ConverterKey(parameterTypes[i], parameterAnnotations[i], methodAnnotations), converter);
+                } catch (RuntimeException e) {
+                    errors.add(new IllegalArgumentException(service.getSimpleName() + "." + method.getName() + "() parameter #" + (i + 1) + ": "
+                            + e.getMessage(), e));
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            StringBuilder message = new StringBuilder("Unable to create converters for ").append(service.getName()).append(':');
+            for (Throwable error : errors) {
+                message.append("\n  ").append(error.getMessage());
+            }
+            IllegalArgumentException exception = new IllegalArgumentException(message.toString());
+            for (Throwable error : errors) {
+                exception.addSuppressed(error);
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Looks up a converter created by {@link #warmUp(Retrofit, Class)}
+     *
+     * @return cached converter or {@code null} if there's none
+     */
+    @Nullable
+    private Converter<?, ?> findWarmedUpConverter(Retrofit retrofit, Type type, @Nullable Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+        Map<ConverterKey, Converter<?, ?>> warmedUpConverters = registry.findWarmedUpConverters(retrofit);
+        if (warmedUpConverters == null) {
+            return null;
+        }
+        return warmedUpConverters.get(new ConverterKey(type, parameterAnnotations, methodAnnotations));
+    }
+
+    /**
+     * Creates converter extracting data of {@code dataType} from response body wrapped in {@code wrapperClasses} chain
+     *
+     * @param dataType       actual data type
+     * @param wrapperClasses wrapper classes chain
+     * @param annotations    interface method annotations
+     * @param retrofit       {@link Retrofit} instance the converter is created for
+     * @return unwrapping converter
+     */
+    Converter<ResponseBody, ?> createUnwrappingConverter(Type dataType, Class[] wrapperClasses, final Annotation[] annotations, Retrofit retrofit) {
+        ConverterMetrics.CallSite callSite = metrics != ConverterMetrics.NONE
+                ? new ConverterMetrics.CallSite(ConverterMetrics.Direction.RESPONSE, dataType, wrapperClasses, annotations)
+                : null;
+
+        Converter<ResponseBody, ?> streamingConverter = findStreamingUnwrapper(dataType, wrapperClasses, annotations, retrofit);
+        if (streamingConverter != null) {
+            if (callSite != null) {
+                return InstrumentedConverters.streamingUnwrapping(streamingConverter, metrics, callSite);
+            }
+            return streamingConverter;
+        }
+
+        final ResponseUnwrapper[] unwrappers = resolveUnwrappers(wrapperClasses);
+        Type wrappedType = getWrappedType(dataType, wrapperClasses, null, annotations);
+        final Converter<ResponseBody, ?> wrappedDelegate = retrofit.nextResponseBodyConverter(this, wrappedType, annotations);
+        if (callSite != null) {
+            return InstrumentedConverters.unwrapping(this, wrappedDelegate, unwrappers, annotations, metrics, callSite);
+        }
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(@Nonnull ResponseBody body) throws IOException {
+                return chainUnwrap(wrappedDelegate.convert(body), unwrappers, annotations);
+            }
+        };
+    }
+
+    /**
+     * Wraps unwrapping converter with the one answering from {@link UnwrappedResponseCache},
+     * if the cache is set and the method is annotated with {@link Memoized}
+     *
+     * @param converter   unwrapping converter
+     * @param dataType    actual data type
+     * @param annotations interface method annotations
+     * @return memoizing converter or {@code converter} itself
+     */
+    private Converter<ResponseBody, ?> memoizeIfRequested(Converter<ResponseBody, ?> converter, Type dataType, Annotation[] annotations) {
+        if (responseCache == null || !isMemoized(annotations)) {
+            return converter;
+        }
+        Type rawType = dataType instanceof ParameterizedType ? ((ParameterizedType) dataType).getRawType() : dataType;
+        if (rawType == CloseableIterator.class || rawType == Iterator.class) {
+            // iterators are consumed by the caller, so they can't be shared
+            return converter;
+        }
+        return responseCache.memoize(converter);
+    }
+
+    private static boolean isMemoized(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Memoized) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Сonvenience method for finding the {@link InWrapper} annotation in {@link Annotation} array
      *
@@ -123,23 +426,190 @@ public class InWrapperConverterFactory extends Converter.Factory {
     }
 
     /**
-     * Creates {@link Type} object representing the type of fully wrapped data
+     * Asks registered {@link StreamingPackerFactory} instances for a converter able to write wrapped data
+     * to request body directly
+     *
+     * @param dataType             actual data type
+     * @param wrapperClasses       wrapper classes chain
+     * @param parameterAnnotations interface method parameter annotations
+     * @param methodAnnotations    interface method annotations
+     * @param retrofit             {@link Retrofit} instance the converter is created for
+     * @return first converter provided by streaming packer factories or {@code null} if none of them supports the chain
+     */
+    @Nullable
+    Converter<?, RequestBody> findStreamingPacker(Type dataType, Class[] wrapperClasses, Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
+        for (StreamingPackerFactory factory : streamingPackerFactories) {
+            Converter<?, RequestBody> converter = factory.create(dataType, wrapperClasses, parameterAnnotations, methodAnnotations, retrofit);
+            if (converter != null) {
+                return converter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Asks registered {@link StreamingUnwrapperFactory} instances for a converter able to extract data
+     * from response body directly
+     *
+     * @param dataType       actual data type
+     * @param wrapperClasses wrapper classes chain
+     * @param annotations    interface method annotations
+     * @param retrofit       {@link Retrofit} instance the converter is created for
+     * @return first converter provided by streaming unwrapper factories or {@code null} if none of them supports the chain
+     */
+    @Nullable
+    Converter<ResponseBody, ?> findStreamingUnwrapper(Type dataType, Class[] wrapperClasses, Annotation[] annotations, Retrofit retrofit) {
+        for (StreamingUnwrapperFactory factory : streamingUnwrapperFactories) {
+            Converter<ResponseBody, ?> converter = factory.create(dataType, wrapperClasses, annotations, retrofit);
+            if (converter != null) {
+                return converter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates {@link Type} object representing the type of fully wrapped data.<br/>
+     * <p>
+     * Types resolved by default strategy only depend on wrapper chain and data type, so they are cached
+     * and the same instance is returned for every converter with equal chain and data type.
+     * Chains containing wrappers with custom {@link TypeResolver} are resolved every time, since the resolver may depend on annotations.
      *
      * @param dataType       actual data type
      * @param wrapperClasses wrapper classes chain
      * @return wrapped data type
      */
-    Type getWrappedType(Type dataType, Class[] wrapperClasses, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+    public Type getWrappedType(Type dataType, Class[] wrapperClasses, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+        Registry registry = this.registry;
+        Map<Class, TypeResolver> typeResolvers = registry.typeResolvers;
+
+        WrappedTypeKey key = null;
+        if (!hasCustomTypeResolvers(typeResolvers, wrapperClasses)) {
+            key = new WrappedTypeKey(wrapperClasses, dataType);
+            Type cached = registry.wrappedTypes.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         Type resultType = dataType;
         for (int i = wrapperClasses.length - 1; i >= 0; i--) {
             Class wrapperClass = wrapperClasses[i];
             TypeResolver resolver = typeResolvers.get(wrapperClass);
-            if (resolver == null) resolver = DEFAULT_TYPE_RESOLVER;
-            resultType = resolver.resolveType(dataType, wrapperClass, i, parameterAnnotations, methodAnnotations);
+            if (resolver == null) resolver = defaultTypeResolver;
+            // every wrapper wraps the type resolved for the previous (inner) one
+            resultType = resolver.resolveType(resultType, wrapperClass, i, parameterAnnotations, methodAnnotations);
+        }
+
+        if (key != null) {
+            Type previous = registry.wrappedTypes.putIfAbsent(key, resultType);
+            if (previous != null) {
+                return previous;
+            }
         }
         return resultType;
     }
 
+    private static boolean hasCustomTypeResolvers(Map<Class, TypeResolver> typeResolvers, Class[] wrapperClasses) {
+        for (Class wrapperClass : wrapperClasses) {
+            if (typeResolvers.containsKey(wrapperClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves {@link RequestPacker}s for every wrapper in {@code wrapperClasses} chain.
+     * If there is no packer registered for the wrapper class itself, the one of the nearest superclass or interface is used.
+     *
+     * @param wrapperClasses wrapper classes chain
+     * @return packers in the same order as wrapper classes
+     * @throws RuntimeException if there is no packer registered for any of the wrappers
+     */
+    public RequestPacker[] resolvePackers(Class[] wrapperClasses) {
+        HierarchyLookup<RequestPacker> requestPackers = registry.requestPackers;
+        RequestPacker[] packers = new RequestPacker[wrapperClasses.length];
+        for (int i = 0; i < wrapperClasses.length; i++) {
+            Class wrapperClass = wrapperClasses[i];
+            RequestPacker packer = requestPackers.get(wrapperClass);
+            if (packer == null)
+                throw new RuntimeException("wrapper of type " + wrapperClass.getName()
+                        + " is not supported, please add a " + RequestPacker.class.getSimpleName() + " for it");
+            packers[i] = packer;
+        }
+        return packers;
+    }
+
+    /**
+     * Replaces {@link CallSitePacker}s in the chain with packers bound to the call site
+     *
+     * @param packers              packers chain, as returned by {@link #resolvePackers(Class[])}
+     * @param parameterAnnotations interface method parameter annotations
+     * @param methodAnnotations    interface method annotations
+     * @return packers chain for the call site, {@code packers} itself if there's nothing to bind
+     */
+    static RequestPacker[] bindPackers(RequestPacker[] packers, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+        RequestPacker[] bound = packers;
+        for (int i = 0; i < packers.length; i++) {
+            if (packers[i] instanceof CallSitePacker) {
+                if (bound == packers) {
+                    bound = packers.clone();
+                }
+                bound[i] = ((CallSitePacker) packers[i]).bind(i, parameterAnnotations, methodAnnotations);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * @param packers packers chain
+     * @return {@link RecyclingPacker}s of the chain or {@code null} if there are none
+     */
+    @Nullable
+    static RecyclingPacker[] findRecyclingPackers(RequestPacker[] packers) {
+        List<RecyclingPacker> recyclingPackers = new ArrayList<>();
+        for (RequestPacker packer : packers) {
+            if (packer instanceof RecyclingPacker) {
+                recyclingPackers.add((RecyclingPacker) packer);
+            }
+        }
+        return recyclingPackers.isEmpty() ? null : recyclingPackers.toArray(new RecyclingPacker[recyclingPackers.size()]);
+    }
+
+    /**
+     * Lets packers reuse the wrappers of the current thread once they have been serialized
+     *
+     * @param recyclingPackers packers as returned by {@link #findRecyclingPackers(RequestPacker[])}
+     */
+    static void recycle(RecyclingPacker[] recyclingPackers) {
+        for (RecyclingPacker packer : recyclingPackers) {
+            packer.recycle();
+        }
+    }
+
+    /**
+     * Resolves {@link ResponseUnwrapper}s for every wrapper in {@code wrapperClasses} chain.
+     * If there is no unwrapper registered for the wrapper class itself, the one of the nearest superclass or interface is used.
+     *
+     * @param wrapperClasses wrapper classes chain
+     * @return unwrappers in the same order as wrapper classes
+     * @throws RuntimeException if there is no unwrapper registered for any of the wrappers
+     */
+    public ResponseUnwrapper[] resolveUnwrappers(Class[] wrapperClasses) {
+        HierarchyLookup<ResponseUnwrapper> responseUnwrappers = registry.responseUnwrappers;
+        ResponseUnwrapper[] unwrappers = new ResponseUnwrapper[wrapperClasses.length];
+        for (int i = 0; i < wrapperClasses.length; i++) {
+            Class wrapperClass = wrapperClasses[i];
+            ResponseUnwrapper unwrapper = responseUnwrappers.get(wrapperClass);
+            if (unwrapper == null)
+                throw new RuntimeException("wrapper of type " + wrapperClass.getName()
+                        + " is not supported, please add a " + ResponseUnwrapper.class.getSimpleName() + " for it");
+            unwrappers[i] = unwrapper;
+        }
+        return unwrappers;
+    }
+
     /**
      * Packs data in wrappers as described by {@code wrapperClasses} chain
      *
@@ -150,15 +620,23 @@ public class InWrapperConverterFactory extends Converter.Factory {
      * @return packed data
      */
     Object chainPack(Object data, Class[] wrapperClasses, @Nullable Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+        return chainPack(data, resolvePackers(wrapperClasses), parameterAnnotations, methodAnnotations);
+    }
+
+    /**
+     * Packs data in wrappers using pre-resolved packers chain
+     *
+     * @param data                 actual data
+     * @param packers              packers chain, as returned by {@link #resolvePackers(Class[])}
+     * @param parameterAnnotations interface method parameter annotations
+     * @param methodAnnotations    interface method annotations
+     * @return packed data
+     */
+    public Object chainPack(Object data, RequestPacker[] packers, @Nullable Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
         Object packedData = data;
-        for (int i = wrapperClasses.length - 1; i >= 0; i--) {
-            Class wrapperClass = wrapperClasses[i];
-            RequestPacker packer = requestPackers.get(wrapperClass);
-            if (packer == null)
-                throw new RuntimeException("wrapper of type " + wrapperClass.getName()
-                        + " is not supported, please add a " + RequestPacker.class.getSimpleName() + " for it");
+        for (int i = packers.length - 1; i >= 0; i--) {
             //noinspection unchecked (packer should be of required type)
-            packedData = packer.pack(packedData, i, parameterAnnotations, methodAnnotations);
+            packedData = packers[i].pack(packedData, i, parameterAnnotations, methodAnnotations);
         }
         return packedData;
     }
@@ -172,21 +650,193 @@ public class InWrapperConverterFactory extends Converter.Factory {
      * @return unwrapped data
      */
     Object chainUnwrap(Object wrappedData, Class[] wrapperClasses, Annotation[] annotations) {
+        return chainUnwrap(wrappedData, resolveUnwrappers(wrapperClasses), annotations);
+    }
+
+    /**
+     * Unwraps data packed in chain of wrappers using pre-resolved unwrappers chain
+     *
+     * @param wrappedData wrapper containing actual data
+     * @param unwrappers  unwrappers chain, as returned by {@link #resolveUnwrappers(Class[])}
+     * @param annotations interface method annotations
+     * @return unwrapped data
+     */
+    public Object chainUnwrap(Object wrappedData, ResponseUnwrapper[] unwrappers, Annotation[] annotations) {
         Object unwrappedData = wrappedData;
-        for (int i = 0; i < wrapperClasses.length; i++) {
-            Class wrapperClass = wrapperClasses[i];
-            ResponseUnwrapper unwrapper = responseUnwrappers.get(wrapperClass);
-            if (unwrapper == null)
-                throw new RuntimeException("wrapper of type " + wrapperClass.getName()
-                        + " is not supported, please add a " + ResponseUnwrapper.class.getSimpleName() + " for it");
+        for (int i = 0; i < unwrappers.length; i++) {
             //noinspection unchecked (unwrapper should be of required type)
-            unwrappedData = unwrapper.unwrap(unwrappedData, i, annotations);
+            unwrappedData = unwrappers[i].unwrap(unwrappedData, i, annotations);
         }
         return unwrappedData;
     }
 
     /**
-     * A very simple {@link ParameterizedType} implementation
+     * Immutable snapshot of registered handlers along with the wrapped types resolved with them
+     */
+    private static final class Registry {
+        private final HierarchyLookup<ResponseUnwrapper> responseUnwrappers;
+        private final HierarchyLookup<RequestPacker> requestPackers;
+        // type parameters of subclasses may differ from the registered class, so type resolvers are matched exactly
+        private final Map<Class, TypeResolver> typeResolvers;
+        private final ConcurrentMap<WrappedTypeKey, Type> wrappedTypes = new ConcurrentHashMap<>();
+        // Retrofit instances are weakly referenced, so that warming up doesn't keep discarded instances alive.
+        // Converters don't reference their Retrofit instance, so the entries are dropped along with it
+        private final Map<Retrofit, ConcurrentMap<ConverterKey, Converter<?, ?>>> warmedUpConverters = new WeakHashMap<>();
+
+        Registry(Map<Class, ResponseUnwrapper> responseUnwrappers, Map<Class, RequestPacker> requestPackers, Map<Class, TypeResolver> typeResolvers) {
+            this.responseUnwrappers = new HierarchyLookup<>(responseUnwrappers);
+            this.requestPackers = new HierarchyLookup<>(requestPackers);
+            this.typeResolvers = Collections.unmodifiableMap(new HashMap<>(typeResolvers));
+        }
+
+        /**
+         * @return converters warmed up for {@code retrofit}, created if there are none
+         */
+        Map<ConverterKey, Converter<?, ?>> warmedUpConverters(Retrofit retrofit) {
+            synchronized (warmedUpConverters) {
+                ConcurrentMap<ConverterKey, Converter<?, ?>> converters = warmedUpConverters.get(retrofit);
+                if (converters == null) {
+                    converters = new ConcurrentHashMap<>();
+                    warmedUpConverters.put(retrofit, converters);
+                }
+                return converters;
+            }
+        }
+
+        /**
+         * @return converters warmed up for {@code retrofit} or {@code null} if it hasn't been warmed up
+         */
+        @Nullable
+        Map<ConverterKey, Converter<?, ?>> findWarmedUpConverters(Retrofit retrofit) {
+            synchronized (warmedUpConverters) {
+                // WeakHashMap expunges collected entries on every access, so even reads are synchronized
+                return warmedUpConverters.isEmpty() ? null : warmedUpConverters.get(retrofit);
+            }
+        }
+    }
+
+    /**
+     * Class keyed handlers lookup, falling back to handlers registered for superclasses and interfaces.
+     * Superclasses are checked first, then interfaces, nearest first. The result is memoized per class,
+     * so the hierarchy is only walked once for every wrapper class.
+     *
+     * @param <H> handler type
+     */
+    private static final class HierarchyLookup<H> {
+        private static final Object NONE = new Object();
+
+        private final Map<Class, H> handlers;
+        private final ConcurrentMap<Class, Object> resolved = new ConcurrentHashMap<>();
+
+        HierarchyLookup(Map<Class, H> handlers) {
+            this.handlers = Collections.unmodifiableMap(new HashMap<>(handlers));
+        }
+
+        @Nullable
+        H get(Class wrapperClass) {
+            Object handler = resolved.get(wrapperClass);
+            if (handler == null) {
+                handler = find(wrapperClass);
+                resolved.putIfAbsent(wrapperClass, handler != null ? handler : NONE);
+            }
+            //noinspection unchecked (only handlers and NONE are stored)
+            return handler != NONE ? (H) handler : null;
+        }
+
+        @Nullable
+        private H find(Class wrapperClass) {
+            for (Class cls = wrapperClass; cls != null; cls = cls.getSuperclass()) {
+                H handler = handlers.get(cls);
+                if (handler != null) {
+                    return handler;
+                }
+            }
+
+            Deque<Class> interfaces = new ArrayDeque<>();
+            for (Class cls = wrapperClass; cls != null; cls = cls.getSuperclass()) {
+                Collections.addAll(interfaces, cls.getInterfaces());
+            }
+            Set<Class> visited = new HashSet<>();
+            while (!interfaces.isEmpty()) {
+                Class iface = interfaces.poll();
+                if (visited.add(iface)) {
+                    H handler = handlers.get(iface);
+                    if (handler != null) {
+                        return handler;
+                    }
+                    Collections.addAll(interfaces, iface.getInterfaces());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Cache key for resolved wrapped types
+     */
+    private static final class WrappedTypeKey {
+        private final Class[] wrapperClasses;
+        private final Type dataType;
+        private final int hashCode;
+
+        WrappedTypeKey(Class[] wrapperClasses, Type dataType) {
+            this.wrapperClasses = wrapperClasses.clone();
+            this.dataType = dataType;
+            this.hashCode = 31 * Arrays.hashCode(wrapperClasses) + dataType.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof WrappedTypeKey)) return false;
+            WrappedTypeKey that = (WrappedTypeKey) o;
+            return Arrays.equals(wrapperClasses, that.wrapperClasses) && dataType.equals(that.dataType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Cache key of converters created by {@link #warmUp(Retrofit, Class)}.
+     * Converters delegate to the next converters of particular {@link Retrofit} instance, so they are kept per instance.
+     */
+    private static final class ConverterKey {
+        private final Type type;
+        private final Annotation[] parameterAnnotations;
+        private final Annotation[] methodAnnotations;
+        private final int hashCode;
+
+        ConverterKey(Type type, @Nullable Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            this.type = type;
+            this.parameterAnnotations = parameterAnnotations;
+            this.methodAnnotations = methodAnnotations;
+            this.hashCode = 31 * (31 * type.hashCode() + Arrays.hashCode(parameterAnnotations)) + Arrays.hashCode(methodAnnotations);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConverterKey)) return false;
+            ConverterKey that = (ConverterKey) o;
+            return type.equals(that.type)
+                    && Arrays.equals(parameterAnnotations, that.parameterAnnotations)
+                    && Arrays.equals(methodAnnotations, that.methodAnnotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A very simple {@link ParameterizedType} implementation.<br/>
+     * <p>
+     * Follows the {@link ParameterizedType} equality contract of JDK implementation,
+     * so it is interchangeable with types obtained through reflection (e.g. as cache keys in type adapter caches).
      */
     static final class ParameterizedTypeImpl implements ParameterizedType {
         private final Type ownerType;
@@ -194,6 +844,10 @@ public class InWrapperConverterFactory extends Converter.Factory {
         private final Type[] typeArguments;
 
         ParameterizedTypeImpl(Type ownerType, Type rawType, Type... typeArguments) {
+            // same as JDK does for reflected types, so that equals() works both ways
+            if (ownerType == null && rawType instanceof Class) {
+                ownerType = ((Class) rawType).getDeclaringClass();
+            }
             this.ownerType = ownerType;
             this.rawType = rawType;
             this.typeArguments = typeArguments.clone();
@@ -213,6 +867,40 @@ public class InWrapperConverterFactory extends Converter.Factory {
         public Type getOwnerType() {
             return ownerType;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ParameterizedType)) return false;
+            ParameterizedType that = (ParameterizedType) o;
+            return Objects.equals(ownerType, that.getOwnerType())
+                    && Objects.equals(rawType, that.getRawType())
+                    && Arrays.equals(typeArguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            // same formula as JDK implementation
+            return Arrays.hashCode(typeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(typeToString(rawType));
+            if (typeArguments.length > 0) {
+                sb.append('<');
+                for (int i = 0; i < typeArguments.length; i++) {
+                    if (i > 0) sb.append(", ");
+                    sb.append(typeToString(typeArguments[i]));
+                }
+                sb.append('>');
+            }
+            return sb.toString();
+        }
+
+        private static String typeToString(Type type) {
+            return type instanceof Class ? ((Class) type).getName() : type.toString();
+        }
     }
 
     /**
@@ -252,6 +940,94 @@ public class InWrapperConverterFactory extends Converter.Factory {
         W pack(T data, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations);
     }
 
+    /**
+     * {@link RequestPacker} which can be specialized for a call site, e.g. to read annotations once instead of on every call.
+     * {@link #bind(int, Annotation[], Annotation[])} is called when request converter is created,
+     * and the returned packer is used by that converter instead of this one.
+     *
+     * @param <W> request body wrapper
+     * @param <T> wrapped data type
+     */
+    public interface CallSitePacker<W, T> extends RequestPacker<W, T> {
+        /**
+         * Creates packer for the call site
+         *
+         * @param depth                wrapper chain depth the packer is used at
+         * @param parameterAnnotations parameter annotations
+         * @param methodAnnotations    interface method annotations
+         * @return packer for the call site
+         */
+        RequestPacker<W, T> bind(int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations);
+    }
+
+    /**
+     * {@link RequestPacker} reusing wrapper instances between calls, e.g. keeping one mutable wrapper per thread.
+     * Request bodies are serialized right after packing, on the same thread, so the wrapper returned by
+     * {@link #pack(Object, int, Annotation[], Annotation[])} is not used any more once {@link #recycle()} is called.
+     *
+     * @param <W> request body wrapper
+     * @param <T> wrapped data type
+     */
+    public interface RecyclingPacker<W, T> extends RequestPacker<W, T> {
+        /**
+         * Called on the packing thread after the wrapper packed on this thread is serialized (or has failed to),
+         * so that it can be cleared and reused
+         */
+        void recycle();
+    }
+
+    /**
+     * Factory interface for converters extracting wrapped data directly from response body,
+     * without materializing wrapper objects.
+     */
+    public interface StreamingUnwrapperFactory {
+        /**
+         * Creates a converter extracting actual data from response body wrapped in {@code wrapperClasses} chain
+         *
+         * @param dataType       actual data type
+         * @param wrapperClasses wrapper classes chain
+         * @param annotations    interface method annotations to parametrize the process (if needed)
+         * @param retrofit       {@link Retrofit} instance the converter is created for
+         * @return converter instance or {@code null} if the wrapper chain is not supported by this factory
+         */
+        @Nullable
+        Converter<ResponseBody, ?> create(Type dataType, Class[] wrapperClasses, Annotation[] annotations, Retrofit retrofit);
+    }
+
+    /**
+     * Factory interface for converters writing wrapped data directly to request body,
+     * without creating wrapper objects.
+     */
+    public interface StreamingPackerFactory {
+        /**
+         * Creates a converter writing actual data wrapped in {@code wrapperClasses} chain to request body
+         *
+         * @param dataType             actual data type
+         * @param wrapperClasses       wrapper classes chain
+         * @param parameterAnnotations parameter annotations to parametrize the process (if needed)
+         * @param methodAnnotations    interface method annotations to parametrize the process (if needed)
+         * @param retrofit             {@link Retrofit} instance the converter is created for
+         * @return converter instance or {@code null} if the wrapper chain is not supported by this factory
+         */
+        @Nullable
+        Converter<?, RequestBody> create(Type dataType, Class[] wrapperClasses, Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit);
+    }
+
+    /**
+     * Source of handlers registered in a single call, e.g. a registry generated at compile time
+     * for classes annotated with {@link GenerateHandlers}.
+     *
+     * @see Builder#registerHandlers(HandlerRegistry)
+     */
+    public interface HandlerRegistry {
+        /**
+         * Registers all the handlers of this registry
+         *
+         * @param builder builder to register the handlers to
+         */
+        void registerHandlers(Builder builder);
+    }
+
     /**
      * Abstract class for customizing wrapper type resolution if it is a generic with more than one type parameter
      */
@@ -266,7 +1042,7 @@ public class InWrapperConverterFactory extends Converter.Factory {
          * @param methodAnnotations    interface method annotations to parametrize the process (if needed)
          * @return resolved wrapped type
          */
-        abstract Type resolveType(Type typeToWrap, Class wrapperClass, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations);
+        protected abstract Type resolveType(Type typeToWrap, Class wrapperClass, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations);
 
         /**
          * Convenience method for creating a {@link ParameterizedType}
@@ -293,21 +1069,104 @@ public class InWrapperConverterFactory extends Converter.Factory {
     }
 
     /**
-     * Internal implementation of default type resolution strategy
+     * Internal implementation of default type resolution strategy.<br/>
+     * <p>
+     * Wrappers with a single type parameter get the wrapped type as its argument. Wrappers with more than one
+     * have to declare the data type variable with {@link WrappedTypeParameter}. Type arguments of every wrapper class
+     * are resolved once and reused, only the wrapped type is substituted for every resolution.
      */
     private static final class DefaultTypeResolver extends TypeResolver {
+        private static final Type[] NO_TYPE_ARGUMENTS = new Type[0];
+
+        private final ConcurrentMap<Class, TypeTemplate> templates = new ConcurrentHashMap<>();
+
         @Override
-        Type resolveType(Type typeToWrap, Class wrapperClass, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
-            Type[] typeParams = wrapperClass.getTypeParameters();
-            if (typeParams.length == 0) {
+        protected Type resolveType(Type typeToWrap, Class wrapperClass, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            TypeTemplate template = templates.get(wrapperClass);
+            if (template == null) {
+                template = createTemplate(wrapperClass);
+                templates.putIfAbsent(wrapperClass, template);
+            }
+            if (template.typeArguments.length == 0) {
                 return wrapperClass;
+            }
+            Type[] typeArguments = template.typeArguments.clone();
+            typeArguments[template.dataTypeIndex] = typeToWrap;
+            return createParametrizedType(wrapperClass, typeArguments);
+        }
+
+        private TypeTemplate createTemplate(Class<?> wrapperClass) {
+            TypeVariable<?>[] typeParams = wrapperClass.getTypeParameters();
+            if (typeParams.length == 0) {
+                return new TypeTemplate(NO_TYPE_ARGUMENTS, -1);
             } else if (typeParams.length == 1) {
-                return createParametrizedType(wrapperClass, new Type[]{typeToWrap});
-            } else {
+                return new TypeTemplate(new Type[1], 0);
+            }
+
+            WrappedTypeParameter declaration = wrapperClass.getAnnotation(WrappedTypeParameter.class);
+            if (declaration == null) {
                 throw new IllegalArgumentException("Unable to process " + wrapperClass.getSimpleName() + ". " + this.getClass().getSimpleName()
-                        + " does not support wrapper classes with more than one type parameter. Please create a custom "
+                        + " does not support wrapper classes with more than one type parameter unless the data type parameter is declared with "
+                        + WrappedTypeParameter.class.getSimpleName() + " annotation. Please annotate the class or create a custom "
                         + TypeResolver.class.getName() + " implementation for " + wrapperClass.getName());
             }
+
+            Type[] typeArguments = new Type[typeParams.length];
+            int dataTypeIndex = -1;
+            for (int i = 0; i < typeParams.length; i++) {
+                if (typeParams[i].getName().equals(declaration.value())) {
+                    dataTypeIndex = i;
+                } else {
+                    typeArguments[i] = erasure(typeParams[i]);
+                }
+            }
+            if (dataTypeIndex < 0) {
+                throw new IllegalArgumentException(wrapperClass.getName() + " has no type parameter named " + declaration.value());
+            }
+
+            for (WrappedTypeParameter.Binding binding : declaration.bindings()) {
+                boolean bound = false;
+                for (int i = 0; i < typeParams.length; i++) {
+                    if (i != dataTypeIndex && typeParams[i].getName().equals(binding.name())) {
+                        typeArguments[i] = binding.type();
+                        bound = true;
+                    }
+                }
+                if (!bound) {
+                    throw new IllegalArgumentException(wrapperClass.getName() + " has no type parameter named " + binding.name()
+                            + " to bind, or it is the data type parameter");
+                }
+            }
+            return new TypeTemplate(typeArguments, dataTypeIndex);
+        }
+
+        /**
+         * @return erasure of type variable, i.e. the raw class of its first bound
+         */
+        private static Class<?> erasure(Type type) {
+            if (type instanceof Class) {
+                return (Class<?>) type;
+            } else if (type instanceof ParameterizedType) {
+                return erasure(((ParameterizedType) type).getRawType());
+            } else if (type instanceof TypeVariable) {
+                return erasure(((TypeVariable<?>) type).getBounds()[0]);
+            } else if (type instanceof GenericArrayType) {
+                return Array.newInstance(erasure(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+            }
+            return Object.class;
+        }
+
+        /**
+         * Type arguments of a wrapper class with a placeholder for the wrapped type
+         */
+        private static final class TypeTemplate {
+            private final Type[] typeArguments;
+            private final int dataTypeIndex;
+
+            TypeTemplate(Type[] typeArguments, int dataTypeIndex) {
+                this.typeArguments = typeArguments;
+                this.dataTypeIndex = dataTypeIndex;
+            }
         }
     }
 
@@ -319,6 +1178,11 @@ public class InWrapperConverterFactory extends Converter.Factory {
         private final Map<Class, ResponseUnwrapper> responseUnwrappers = new HashMap<>();
         private final Map<Class, RequestPacker> requestPackers = new HashMap<>();
         private final Map<Class, TypeResolver> typeResolvers = new HashMap<>();
+        private final List<StreamingUnwrapperFactory> streamingUnwrapperFactories = new ArrayList<>();
+        private final List<StreamingPackerFactory> streamingPackerFactories = new ArrayList<>();
+        private ConverterMetrics converterMetrics = ConverterMetrics.NONE;
+        private UnwrappedResponseCache responseCache;
+        private ResponseSpooler responseSpooler;
 
         /**
          * Registers a {@link ResponseUnwrapper}
@@ -358,12 +1222,74 @@ public class InWrapperConverterFactory extends Converter.Factory {
         }
 
         /**
-         * Creates a {@link InWrapperConverterFactory} instance
+         * Registers all the handlers of a {@link HandlerRegistry}
+         *
+         * @param handlerRegistry the registry instance
+         */
+        public Builder registerHandlers(HandlerRegistry handlerRegistry) {
+            handlerRegistry.registerHandlers(this);
+            return this;
+        }
+
+        /**
+         * Registers a {@link StreamingUnwrapperFactory}. Factories are asked in registration order.
+         *
+         * @param streamingUnwrapperFactory the streaming unwrapper factory instance
+         */
+        public Builder registerStreamingUnwrapperFactory(StreamingUnwrapperFactory streamingUnwrapperFactory) {
+            streamingUnwrapperFactories.add(streamingUnwrapperFactory);
+            return this;
+        }
+
+        /**
+         * Registers a {@link StreamingPackerFactory}. Factories are asked in registration order.
+         *
+         * @param streamingPackerFactory the streaming packer factory instance
+         */
+        public Builder registerStreamingPackerFactory(StreamingPackerFactory streamingPackerFactory) {
+            streamingPackerFactories.add(streamingPackerFactory);
+            return this;
+        }
+
+        /**
+         * Sets a {@link ConverterMetrics} listener for converters instrumentation
+         *
+         * @param converterMetrics the listener instance, {@code null} to disable instrumentation
+         */
+        public Builder setConverterMetrics(ConverterMetrics converterMetrics) {
+            this.converterMetrics = converterMetrics != null ? converterMetrics : ConverterMetrics.NONE;
+            return this;
+        }
+
+        /**
+         * Sets a {@link UnwrappedResponseCache} for methods annotated with {@link Memoized}
+         *
+         * @param responseCache the cache instance, {@code null} to disable memoization
+         */
+        public Builder setResponseCache(UnwrappedResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Sets a {@link ResponseSpooler} for oversized response bodies
+         *
+         * @param responseSpooler the spooler instance, {@code null} to keep bodies in memory
+         */
+        public Builder setResponseSpooler(ResponseSpooler responseSpooler) {
+            this.responseSpooler = responseSpooler;
+            return this;
+        }
+
+        /**
+         * Creates a {@link InWrapperConverterFactory} instance.
+         * Factory takes a snapshot of registered handlers, further changes to the builder don't affect it.
          *
          * @return converter factory instance
          */
         public InWrapperConverterFactory build() {
-            return new InWrapperConverterFactory(responseUnwrappers, requestPackers, typeResolvers);
+            return new InWrapperConverterFactory(responseUnwrappers, requestPackers, typeResolvers, streamingUnwrapperFactories, streamingPackerFactories,
+                    converterMetrics, responseCache, responseSpooler);
         }
     }
 }
\ No newline at end of file
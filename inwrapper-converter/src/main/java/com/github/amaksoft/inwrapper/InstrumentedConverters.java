@@ -0,0 +1,229 @@
+package com.github.amaksoft.inwrapper;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.NoSuchElementException;
+
+/**
+ * Converters reporting to {@link ConverterMetrics}. Only used when metrics are enabled,
+ * so non-instrumented converters don't pay for time measurement.
+ */
+final class InstrumentedConverters {
+
+    private InstrumentedConverters() {
+    }
+
+    /**
+     * Response converter deserializing with {@code wrappedDelegate} and unwrapping with {@code unwrappers} chain
+     */
+    static Converter<ResponseBody, Object> unwrapping(final InWrapperConverterFactory factory, final Converter<ResponseBody, ?> wrappedDelegate,
+                                                      final InWrapperConverterFactory.ResponseUnwrapper[] unwrappers, final Annotation[] annotations,
+                                                      final ConverterMetrics metrics, final ConverterMetrics.CallSite callSite) {
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(@Nonnull ResponseBody body) throws IOException {
+                long contentLength = body.contentLength();
+                long start = System.nanoTime();
+                Object wrapped;
+                try {
+                    wrapped = wrappedDelegate.convert(body);
+                } catch (IOException | RuntimeException e) {
+                    metrics.onFailure(callSite, ConverterMetrics.Phase.DESERIALIZE, e);
+                    throw e;
+                }
+                long deserialized = System.nanoTime();
+                Object unwrapped;
+                try {
+                    unwrapped = factory.chainUnwrap(wrapped, unwrappers, annotations);
+                } catch (RuntimeException e) {
+                    metrics.onFailure(callSite, ConverterMetrics.Phase.UNWRAP, e);
+                    throw e;
+                }
+                metrics.onResponse(callSite, deserialized - start, System.nanoTime() - deserialized, contentLength);
+                return unwrapped;
+            }
+        };
+    }
+
+    /**
+     * Response converter timing a streaming unwrapper, which deserializes and unwraps at once.
+     * {@link CloseableIterator} results decode elements as they are iterated, so they are wrapped to report
+     * once they are over or closed
+     */
+    static Converter<ResponseBody, Object> streamingUnwrapping(final Converter<ResponseBody, ?> streamingConverter,
+                                                               final ConverterMetrics metrics, final ConverterMetrics.CallSite callSite) {
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(@Nonnull ResponseBody body) throws IOException {
+                long contentLength = body.contentLength();
+                long start = System.nanoTime();
+                Object unwrapped;
+                try {
+                    unwrapped = streamingConverter.convert(body);
+                } catch (IOException | RuntimeException e) {
+                    metrics.onFailure(callSite, ConverterMetrics.Phase.DESERIALIZE, e);
+                    throw e;
+                }
+                if (unwrapped instanceof CloseableIterator) {
+                    return new InstrumentedIterator((CloseableIterator<?>) unwrapped, System.nanoTime() - start, contentLength, metrics, callSite);
+                }
+                metrics.onResponse(callSite, System.nanoTime() - start, 0, contentLength);
+                return unwrapped;
+            }
+        };
+    }
+
+    /**
+     * Iterator adding time spent in {@link #hasNext()} and {@link #next()} to the time of its creation.
+     * Reports either success or the first failure, only once
+     */
+    private static final class InstrumentedIterator implements CloseableIterator<Object> {
+        private final CloseableIterator<?> delegate;
+        private final long contentLength;
+        private final ConverterMetrics metrics;
+        private final ConverterMetrics.CallSite callSite;
+        private long nanos;
+        private boolean reported;
+
+        InstrumentedIterator(CloseableIterator<?> delegate, long creationNanos, long contentLength,
+                             ConverterMetrics metrics, ConverterMetrics.CallSite callSite) {
+            this.delegate = delegate;
+            this.nanos = creationNanos;
+            this.contentLength = contentLength;
+            this.metrics = metrics;
+            this.callSite = callSite;
+        }
+
+        @Override
+        public boolean hasNext() {
+            long start = System.nanoTime();
+            boolean hasNext;
+            try {
+                hasNext = delegate.hasNext();
+            } catch (RuntimeException e) {
+                onFailure(e);
+                throw e;
+            }
+            nanos += System.nanoTime() - start;
+            if (!hasNext) {
+                onResponse();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public Object next() {
+            long start = System.nanoTime();
+            Object element;
+            try {
+                element = delegate.next();
+            } catch (NoSuchElementException e) {
+                // iterating past the end is not a conversion failure
+                throw e;
+            } catch (RuntimeException e) {
+                onFailure(e);
+                throw e;
+            }
+            nanos += System.nanoTime() - start;
+            return element;
+        }
+
+        @Override
+        public void remove() {
+            delegate.remove();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                // closed before the end, time of the elements decoded so far is reported
+                onResponse();
+            }
+        }
+
+        private void onResponse() {
+            if (!reported) {
+                reported = true;
+                metrics.onResponse(callSite, nanos, 0, contentLength);
+            }
+        }
+
+        private void onFailure(RuntimeException e) {
+            if (!reported) {
+                reported = true;
+                metrics.onFailure(callSite, ConverterMetrics.Phase.DESERIALIZE, e);
+            }
+        }
+    }
+
+    /**
+     * Request converter packing with {@code packers} chain and serializing with {@code wrappedDelegate},
+     * wrappers of {@code recyclingPackers} are recycled afterwards
+     */
+    static Converter<Object, RequestBody> packing(final InWrapperConverterFactory factory, final Converter<Object, RequestBody> wrappedDelegate,
+                                                  final InWrapperConverterFactory.RequestPacker[] packers,
+                                                  @Nullable final InWrapperConverterFactory.RecyclingPacker[] recyclingPackers,
+                                                  final Annotation[] parameterAnnotations, final Annotation[] methodAnnotations,
+                                                  final ConverterMetrics metrics, final ConverterMetrics.CallSite callSite) {
+        return new Converter<Object, RequestBody>() {
+            @Override
+            public RequestBody convert(@Nonnull Object value) throws IOException {
+                long start = System.nanoTime();
+                Object packed;
+                try {
+                    packed = factory.chainPack(value, packers, parameterAnnotations, methodAnnotations);
+                } catch (RuntimeException e) {
+                    if (recyclingPackers != null) {
+                        InWrapperConverterFactory.recycle(recyclingPackers);
+                    }
+                    metrics.onFailure(callSite, ConverterMetrics.Phase.PACK, e);
+                    throw e;
+                }
+                long packedTime = System.nanoTime();
+                RequestBody body;
+                try {
+                    body = wrappedDelegate.convert(packed);
+                } catch (IOException | RuntimeException e) {
+                    metrics.onFailure(callSite, ConverterMetrics.Phase.SERIALIZE, e);
+                    throw e;
+                } finally {
+                    if (recyclingPackers != null) {
+                        InWrapperConverterFactory.recycle(recyclingPackers);
+                    }
+                }
+                metrics.onRequest(callSite, packedTime - start, System.nanoTime() - packedTime, body.contentLength());
+                return body;
+            }
+        };
+    }
+
+    /**
+     * Request converter timing a streaming packer
+     */
+    static Converter<Object, RequestBody> streamingPacking(final Converter<Object, RequestBody> streamingConverter,
+                                                           final ConverterMetrics metrics, final ConverterMetrics.CallSite callSite) {
+        return new Converter<Object, RequestBody>() {
+            @Override
+            public RequestBody convert(@Nonnull Object value) throws IOException {
+                long start = System.nanoTime();
+                RequestBody body;
+                try {
+                    body = streamingConverter.convert(value);
+                } catch (IOException | RuntimeException e) {
+                    metrics.onFailure(callSite, ConverterMetrics.Phase.SERIALIZE, e);
+                    throw e;
+                }
+                metrics.onRequest(callSite, 0, System.nanoTime() - start, body.contentLength());
+                return body;
+            }
+        };
+    }
+}
\ No newline at end of file
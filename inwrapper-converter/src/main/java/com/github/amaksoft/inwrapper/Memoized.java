@@ -0,0 +1,17 @@
+package com.github.amaksoft.inwrapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link retrofit2.Retrofit} interface method annotated with {@link InWrapper} as returning immutable data,
+ * which may be shared between calls receiving identical response bodies.<br/>
+ * <p>
+ * Has no effect unless {@link UnwrappedResponseCache} is set with {@link InWrapperConverterFactory.Builder#setResponseCache(UnwrappedResponseCache)}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Memoized {
+}
\ No newline at end of file
@@ -0,0 +1,279 @@
+package com.github.amaksoft.inwrapper;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.Okio;
+import retrofit2.Converter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves oversized response bodies out of the heap before they are unwrapped.<br/>
+ * <p>
+ * Bodies longer than {@code threshold} bytes (or of unknown length, once more than {@code threshold} bytes are read)
+ * are written to a temporary file, and the connection is released. Converters then read the file through
+ * memory-mapped regions of at most {@link #DEFAULT_MAPPING_WINDOW} bytes mapped one after another, so neither the network buffer
+ * nor the mapped file is held in the heap. Closing the body closes the file and deletes it, the last mapped region
+ * is released once it is garbage collected (Java has no explicit unmapping).<br/>
+ * <p>
+ * Only the memory taken by the raw body is bounded. To keep the decoded object graph small, combine spooling with
+ * a {@link InWrapperConverterFactory.StreamingUnwrapperFactory}, which skips everything but the wrapped value,
+ * or with {@link CloseableIterator} return types. Bodies of {@link Deferred} and {@link Memoized} methods are read
+ * into memory by design, so they are not spooled.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class ResponseSpooler {
+    /**
+     * Maximum size of a single mapped region
+     */
+    static final int DEFAULT_MAPPING_WINDOW = 64 * 1024 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final long threshold;
+    @Nullable
+    private final File directory;
+    private final int mappingWindow;
+    private final AtomicLong spooledCount = new AtomicLong();
+
+    /**
+     * @param threshold size in bytes bodies over which are spooled
+     * @param directory directory for temporary files, {@code null} for the default temporary file directory
+     */
+    public ResponseSpooler(long threshold, @Nullable File directory) {
+        this(threshold, directory, DEFAULT_MAPPING_WINDOW);
+    }
+
+    public ResponseSpooler(long threshold) {
+        this(threshold, null);
+    }
+
+    ResponseSpooler(long threshold, @Nullable File directory, int mappingWindow) {
+        if (threshold < 0) throw new IllegalArgumentException("threshold < 0: " + threshold);
+        if (mappingWindow <= 0) throw new IllegalArgumentException("mappingWindow <= 0: " + mappingWindow);
+        this.threshold = threshold;
+        this.directory = directory;
+        this.mappingWindow = mappingWindow;
+    }
+
+    /**
+     * @return number of bodies spooled to files so far
+     */
+    public long spooledCount() {
+        return spooledCount.get();
+    }
+
+    /**
+     * Wraps converter with one spooling oversized bodies before passing them on
+     *
+     * @param converter unwrapping converter
+     * @return spooling converter
+     */
+    Converter<ResponseBody, ?> spooling(final Converter<ResponseBody, ?> converter) {
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(@Nonnull ResponseBody body) throws IOException {
+                ResponseBody spooled = spool(body);
+                Object result = null;
+                try {
+                    result = converter.convert(spooled);
+                    return result;
+                } finally {
+                    // iterators keep reading the body and close it once they are over or closed
+                    if (!(result instanceof CloseableIterator)) {
+                        spooled.close();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Spools the body to a temporary file if it is over the threshold
+     *
+     * @param body response body
+     * @return {@code body} itself, if it's known to be small enough, in-memory body if it's turned out to be small enough
+     * or file-backed body otherwise
+     */
+    ResponseBody spool(ResponseBody body) throws IOException {
+        long contentLength = body.contentLength();
+        if (contentLength != -1 && contentLength <= threshold) {
+            return body;
+        }
+
+        MediaType contentType = body.contentType();
+        InputStream in = body.byteStream();
+        File file = null;
+        try {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            ByteArrayOutputStream head = null;
+            if (contentLength == -1) {
+                // length is unknown, read up to the threshold to find out whether the body should be spooled at all
+                head = new ByteArrayOutputStream();
+                int read;
+                while (head.size() <= threshold) {
+                    // reads one byte over the threshold at most
+                    long left = threshold - head.size();
+                    read = in.read(buffer, 0, left < buffer.length ? (int) left + 1 : buffer.length);
+                    if (read == -1) {
+                        break;
+                    }
+                    head.write(buffer, 0, read);
+                }
+                if (head.size() <= threshold) {
+                    return ResponseBody.create(contentType, head.toByteArray());
+                }
+            }
+
+            file = File.createTempFile("inwrapper", ".body", directory);
+            long size = 0;
+            OutputStream out = new FileOutputStream(file);
+            try {
+                if (head != null) {
+                    head.writeTo(out);
+                    size += head.size();
+                }
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            } finally {
+                out.close();
+            }
+
+            MappedBody mapped = new MappedBody(contentType, new MappedInputStream(file, size, mappingWindow), size);
+            spooledCount.incrementAndGet();
+            return mapped;
+        } catch (IOException | RuntimeException e) {
+            if (file != null && !file.delete()) {
+                file.deleteOnExit();
+            }
+            throw e;
+        } finally {
+            body.close();
+        }
+    }
+
+    /**
+     * Body backed by a spooled file, deletes the file once closed
+     */
+    private static final class MappedBody extends ResponseBody {
+        private final MediaType contentType;
+        private final long contentLength;
+        private final BufferedSource source;
+
+        MappedBody(MediaType contentType, MappedInputStream in, long contentLength) {
+            this.contentType = contentType;
+            this.contentLength = contentLength;
+            this.source = Okio.buffer(Okio.source(in));
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+
+    /**
+     * Reads file through consecutive memory-mapped regions
+     */
+    private static final class MappedInputStream extends InputStream {
+        private final File file;
+        private final FileChannel channel;
+        private final long size;
+        private final int window;
+        private long position;
+        private MappedByteBuffer region;
+        private boolean closed;
+
+        MappedInputStream(File file, long size, int window) throws IOException {
+            this.file = file;
+            this.channel = new RandomAccessFile(file, "r").getChannel();
+            this.size = size;
+            this.window = window;
+        }
+
+        /**
+         * @return region with remaining bytes or {@code null} at the end of file
+         */
+        @Nullable
+        private MappedByteBuffer region() throws IOException {
+            if (closed) {
+                throw new IOException("closed");
+            }
+            if (region == null || !region.hasRemaining()) {
+                if (position == size) {
+                    return null;
+                }
+                long length = Math.min(window, size - position);
+                region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                position += length;
+            }
+            return region;
+        }
+
+        @Override
+        public int read() throws IOException {
+            MappedByteBuffer region = region();
+            return region != null ? region.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            MappedByteBuffer region = region();
+            if (region == null) {
+                return -1;
+            }
+            int count = Math.min(len, region.remaining());
+            region.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return closed || region == null ? 0 : region.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            region = null;
+            try {
+                channel.close();
+            } finally {
+                // may fail on platforms not deleting mapped files, the file is deleted on exit then
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.github.amaksoft.inwrapper;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of unwrapped response data, for endpoints returning identical bodies repeatedly, e.g. polled ones.<br/>
+ * <p>
+ * Converters of methods annotated with {@link Memoized} read the whole body and look the result up by its SHA-256 digest,
+ * so deserialization and unwrapping are skipped for a body already converted by the same converter.
+ * The least recently used entries are evicted once there are more than {@code maxEntries} of them.
+ * Cached values are returned to every caller as is, so they must not be modified.<br/>
+ * <p>
+ * The cache is shared by all converters of the factory it is set to, entries of different converters never match.
+ * Large caches are split into segments by body digest, each with its own lock and its share of {@code maxEntries},
+ * so concurrent conversions rarely contend and recency is tracked per segment.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class UnwrappedResponseCache {
+    private static final Object NULL = new Object();
+    // caches smaller than that are not split, so that the least recently used entry is evicted exactly
+    private static final int MIN_SEGMENT_ENTRIES = 16;
+    private static final int MAX_SEGMENTS = 16;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform implementation is required to support SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final Segment[] segments;
+    private final AtomicLong converterIds = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param maxEntries maximum number of cached values
+     */
+    public UnwrappedResponseCache(int maxEntries) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries <= 0: " + maxEntries);
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * MIN_SEGMENT_ENTRIES <= maxEntries) {
+            segmentCount *= 2;
+        }
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // the remainder is spread over the first segments
+            segments[i] = new Segment(maxEntries / segmentCount + (i < maxEntries % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return number of conversions answered from the cache
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return number of conversions performed because there was no cached value
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return number of values evicted to keep the cache within {@code maxEntries}
+     */
+    public long evictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return current number of cached values
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all the cached values, counters are kept
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Wraps converter with one answering from this cache
+     *
+     * @param converter converter of actual data
+     * @return memoizing converter
+     */
+    Converter<ResponseBody, ?> memoize(Converter<ResponseBody, ?> converter) {
+        return new MemoizingConverter(converterIds.incrementAndGet(), converter);
+    }
+
+    private Segment segmentFor(Key key) {
+        int hash = key.hashCode;
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private Object get(Key key) {
+        Segment segment = segmentFor(key);
+        Object value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    private void put(Key key, Object value) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        // digest() resets the instance for the next use
+        return SHA_256.get().digest(bytes);
+    }
+
+    /**
+     * Part of the cache guarded by its own monitor, evicting its least recently used entries
+     */
+    private final class Segment extends LinkedHashMap<Key, Object> {
+        private final int maxEntries;
+
+        Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+            if (size() > maxEntries) {
+                evictionCount.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final class MemoizingConverter implements Converter<ResponseBody, Object> {
+        private final long id;
+        private final Converter<ResponseBody, ?> delegate;
+
+        MemoizingConverter(long id, Converter<ResponseBody, ?> delegate) {
+            this.id = id;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object convert(@Nonnull ResponseBody body) throws IOException {
+            MediaType contentType = body.contentType();
+            byte[] bytes = body.bytes();
+
+            Key key = new Key(id, digest(bytes));
+            Object cached = get(key);
+            if (cached != null) {
+                return cached != NULL ? cached : null;
+            }
+
+            Object value = delegate.convert(ResponseBody.create(contentType, bytes));
+            put(key, value != null ? value : NULL);
+            return value;
+        }
+    }
+
+    /**
+     * Body digest scoped to the converter it was produced by. The converter is referenced by id,
+     * so cached entries don't keep converters of discarded {@link retrofit2.Retrofit} instances reachable
+     */
+    private static final class Key {
+        private final long converterId;
+        private final byte[] digest;
+        private final int hashCode;
+
+        Key(long converterId, byte[] digest) {
+            this.converterId = converterId;
+            this.digest = digest;
+            this.hashCode = 31 * (int) (converterId ^ (converterId >>> 32)) + Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return converterId == key.converterId && Arrays.equals(digest, key.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.github.amaksoft.inwrapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the field (or the getter) holding wrapped data in a class annotated with {@link GenerateHandlers}
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface WrappedData {
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.github.amaksoft.inwrapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which type variable of a generic wrapper class holds the wrapped data,
+ * so that wrappers with more than one type parameter are resolved without a custom {@link InWrapperConverterFactory.TypeResolver}.<br/>
+ * <p>
+ * The other type variables are resolved to the types given in {@link #bindings()}, or to erasures of their first bounds
+ * if not bound, e.g. for {@code Page<T, C extends Cursor>} annotated with {@code @WrappedTypeParameter("T")}
+ * a wrapped {@code List<Item>} type resolves to {@code Page<List<Item>, Cursor>}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface WrappedTypeParameter {
+    /**
+     * @return name of the type variable holding the wrapped data
+     */
+    String value();
+
+    /**
+     * @return types of the other type variables
+     */
+    Binding[] bindings() default {};
+
+    /**
+     * Binds a type variable of the wrapper class to a type
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({})
+    @interface Binding {
+        /**
+         * @return name of the type variable
+         */
+        String name();
+
+        /**
+         * @return type of the type variable
+         */
+        Class<?> type();
+    }
+}
\ No newline at end of file
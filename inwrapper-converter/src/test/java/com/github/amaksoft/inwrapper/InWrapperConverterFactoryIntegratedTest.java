@@ -15,10 +15,15 @@ import retrofit2.http.POST;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.fail;
 
 /**
  * Integrated tests for {@link InWrapperConverterFactory}
@@ -56,6 +61,25 @@ public class InWrapperConverterFactoryIntegratedTest {
         Call<String> getTestData(
                 @Body @InWrapper({TestWrapper.class, TestWrapper.class, TestWrapper.class}) String body
         );
+
+        @POST("/")
+        @InWrapper({TestWrapper.class})
+        Call<String> getSingleWrappedTestData(
+                @Body @InWrapper({TestWrapper.class}) String body
+        );
+
+        @POST("/")
+        @InWrapper({TestWrapper.class})
+        Call<Deferred<String>> getDeferredTestData(
+                @Body @InWrapper({TestWrapper.class}) String body
+        );
+
+        @POST("/")
+        @InWrapper({TestWrapper.class})
+        @Memoized
+        Call<String> getMemoizedTestData(
+                @Body @InWrapper({TestWrapper.class}) String body
+        );
     }
 
     private static Gson gson = new Gson();
@@ -106,4 +130,177 @@ public class InWrapperConverterFactoryIntegratedTest {
 
         assertThat("Response value mismatch", resultResponseValue, is(equalTo(responseValue)));
     }
-}
+
+    @Test
+    public void testDeferredResponse() throws IOException {
+
+        String responseValue = "RESPONSE";
+
+        Object actualResponse = new TestWrapper<>(responseValue);
+        String actualResponseJson = gson.toJson(actualResponse);
+        mockWebServer.enqueue(
+                new MockResponse().setBody(actualResponseJson)
+        );
+
+        Response<Deferred<String>> response = apiService.getDeferredTestData("REQUEST").execute();
+
+        assertThat("Request failed", response.isSuccessful());
+
+        Deferred<String> deferred = response.body();
+
+        assertThat("Response should not be unwrapped before access", !deferred.isMaterialized());
+        assertThat("Raw body mismatch", deferred.body().string(), is(equalTo(actualResponseJson)));
+        assertThat("Response value mismatch", deferred.get(), is(equalTo(responseValue)));
+        assertThat("Response should be unwrapped after access", deferred.isMaterialized());
+    }
+
+    @Test
+    public void testConverterMetrics() throws IOException {
+        HistogramConverterMetrics metrics = new HistogramConverterMetrics();
+        InWrapperConverterFactory inWrapperConverterFactory = new InWrapperConverterFactory.Builder()
+                .registerPacker(TestWrapper.class, new TestPacker<>())
+                .registerUnwrapper(TestWrapper.class, new TestUnwrapper<>())
+                .setConverterMetrics(metrics)
+                .build();
+
+        ApiService instrumentedService = new Retrofit.Builder()
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(mockWebServer.url("/"))
+                .build()
+                .create(ApiService.class);
+
+        mockWebServer.enqueue(
+                new MockResponse().setBody(gson.toJson(new TestWrapper<>("RESPONSE")))
+        );
+
+        Response<String> response = instrumentedService.getSingleWrappedTestData("REQUEST").execute();
+        assertThat("Request failed", response.isSuccessful());
+        assertThat("Response value mismatch", response.body(), is(equalTo("RESPONSE")));
+
+        assertThat("Request and response call sites expected", metrics.getAllStats().size(), is(equalTo(2)));
+        for (Map.Entry<ConverterMetrics.CallSite, HistogramConverterMetrics.Stats> entry : metrics.getAllStats().entrySet()) {
+            ConverterMetrics.CallSite callSite = entry.getKey();
+            HistogramConverterMetrics.Stats stats = entry.getValue();
+
+            assertThat("Chain depth mismatch", callSite.getDepth(), is(equalTo(1)));
+            assertThat("Unexpected failures", stats.getFailures(), is(equalTo(0L)));
+            if (callSite.getDirection() == ConverterMetrics.Direction.REQUEST) {
+                assertThat("Pack phase not recorded", stats.getPackNanos().getCount(), is(equalTo(1L)));
+                assertThat("Serialize phase not recorded", stats.getSerializeNanos().getCount(), is(equalTo(1L)));
+            } else {
+                assertThat("Deserialize phase not recorded", stats.getDeserializeNanos().getCount(), is(equalTo(1L)));
+                assertThat("Unwrap phase not recorded", stats.getUnwrapNanos().getCount(), is(equalTo(1L)));
+            }
+        }
+    }
+
+    @Test
+    public void testMemoizedResponse() throws IOException {
+        UnwrappedResponseCache cache = new UnwrappedResponseCache(16);
+        InWrapperConverterFactory inWrapperConverterFactory = new InWrapperConverterFactory.Builder()
+                .registerPacker(TestWrapper.class, new TestPacker<>())
+                .registerUnwrapper(TestWrapper.class, new TestUnwrapper<>())
+                .setResponseCache(cache)
+                .build();
+
+        ApiService memoizingService = new Retrofit.Builder()
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(mockWebServer.url("/"))
+                .build()
+                .create(ApiService.class);
+
+        String responseJson = gson.toJson(new TestWrapper<>("RESPONSE"));
+        mockWebServer.enqueue(new MockResponse().setBody(responseJson));
+        mockWebServer.enqueue(new MockResponse().setBody(responseJson));
+        mockWebServer.enqueue(new MockResponse().setBody(responseJson));
+
+        String first = memoizingService.getMemoizedTestData("REQUEST").execute().body();
+        String second = memoizingService.getMemoizedTestData("REQUEST").execute().body();
+        assertThat("Response value mismatch", first, is(equalTo("RESPONSE")));
+        assertThat("Cached value expected", second, is(sameInstance(first)));
+        assertThat(cache.hitCount(), is(equalTo(1L)));
+
+        memoizingService.getSingleWrappedTestData("REQUEST").execute();
+        assertThat("Methods without annotation should not be cached", cache.missCount(), is(equalTo(1L)));
+    }
+
+    interface BrokenApiService {
+        @POST("/")
+        @InWrapper({Object.class})
+        Call<String> getUnknownWrapper();
+
+        @POST("/")
+        Call<String> postUnknownWrapper(@Body @InWrapper({Object.class}) String body);
+    }
+
+    @Test
+    public void testWarmUp() throws IOException, NoSuchMethodException {
+        InWrapperConverterFactory inWrapperConverterFactory = new InWrapperConverterFactory.Builder()
+                .registerPacker(TestWrapper.class, new TestPacker<>())
+                .registerUnwrapper(TestWrapper.class, new TestUnwrapper<>())
+                .build();
+
+        Retrofit retrofit = new Retrofit.Builder()
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(mockWebServer.url("/"))
+                .build();
+
+        inWrapperConverterFactory.warmUp(retrofit, ApiService.class);
+
+        Annotation[] annotations = ApiService.class.getDeclaredMethod("getSingleWrappedTestData", String.class).getAnnotations();
+        assertThat("Warmed up converter expected", inWrapperConverterFactory.responseBodyConverter(String.class, annotations, retrofit),
+                is(sameInstance(inWrapperConverterFactory.responseBodyConverter(String.class, annotations, retrofit))));
+
+        mockWebServer.enqueue(
+                new MockResponse().setBody(gson.toJson(new TestWrapper<>("RESPONSE")))
+        );
+        Response<String> response = retrofit.create(ApiService.class).getSingleWrappedTestData("REQUEST").execute();
+        assertThat("Response value mismatch", response.body(), is(equalTo("RESPONSE")));
+    }
+
+    @Test
+    public void testWarmUpDoesNotRetainRetrofit() throws InterruptedException {
+        InWrapperConverterFactory inWrapperConverterFactory = new InWrapperConverterFactory.Builder()
+                .registerPacker(TestWrapper.class, new TestPacker<>())
+                .registerUnwrapper(TestWrapper.class, new TestUnwrapper<>())
+                .build();
+
+        WeakReference<Retrofit> retrofit = warmUpDiscardedRetrofit(inWrapperConverterFactory);
+        for (int i = 0; i < 50 && retrofit.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat("Warmed up Retrofit instance should be collectable", retrofit.get(), is(nullValue()));
+    }
+
+    private WeakReference<Retrofit> warmUpDiscardedRetrofit(InWrapperConverterFactory inWrapperConverterFactory) {
+        Retrofit retrofit = new Retrofit.Builder()
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(mockWebServer.url("/"))
+                .build();
+        inWrapperConverterFactory.warmUp(retrofit, ApiService.class);
+        return new WeakReference<>(retrofit);
+    }
+
+    @Test
+    public void testWarmUpReportsAllErrors() {
+        InWrapperConverterFactory inWrapperConverterFactory = new InWrapperConverterFactory.Builder().build();
+
+        Retrofit retrofit = new Retrofit.Builder()
+                .addConverterFactory(inWrapperConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .baseUrl(mockWebServer.url("/"))
+                .build();
+
+        try {
+            inWrapperConverterFactory.warmUp(retrofit, BrokenApiService.class);
+            fail("Configuration errors expected");
+        } catch (IllegalArgumentException e) {
+            assertThat("Errors of both methods expected", e.getSuppressed().length, is(equalTo(2)));
+        }
+    }
+}
\ No newline at end of file
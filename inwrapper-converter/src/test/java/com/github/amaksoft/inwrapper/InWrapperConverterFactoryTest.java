@@ -13,6 +13,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsSame.sameInstance;
 
 /**
  * Basic unit-tests for {@link InWrapperConverterFactory}
@@ -29,6 +30,37 @@ public class InWrapperConverterFactoryTest {
         }
     }
 
+    static class TestWrapperSubclass<T> extends TestWrapper<T> {
+        TestWrapperSubclass(T value) {
+            super(value);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class ReflectedTypes {
+        TestWrapper<String> wrapper;
+        TestWrapper<TestWrapper<String>> nestedWrapper;
+    }
+
+    interface ValueHolder {
+        Object getValue();
+    }
+
+    static class InterfaceWrapper implements ValueHolder {
+        @Override
+        public Object getValue() {
+            return "value";
+        }
+    }
+
+    @WrappedTypeParameter("T")
+    static class Page<T, C extends Number> {
+    }
+
+    @WrappedTypeParameter(value = "T", bindings = @WrappedTypeParameter.Binding(name = "E", type = String.class))
+    static class Result<E extends CharSequence, T> {
+    }
+
     public static class TestPacker<T> implements InWrapperConverterFactory.RequestPacker<TestWrapper<T>, T> {
         @Override
         public TestWrapper<T> pack(T data, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
@@ -80,7 +112,7 @@ public class InWrapperConverterFactoryTest {
     public void testCustomTypeResolverSingleWrapperTwoTypeParameters() {
         InWrapperConverterFactory.TypeResolver mapEntryResolver = new InWrapperConverterFactory.TypeResolver() {
             @Override
-            Type resolveType(Type typeToWrap, Class wrapperClass, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            protected Type resolveType(Type typeToWrap, Class wrapperClass, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
                 return new TypeToken<Map.Entry<String, Integer>>() {
                 }.getType();
             }
@@ -113,6 +145,30 @@ public class InWrapperConverterFactoryTest {
         assertThat(secondParameter, is(equalTo(Integer.class)));
     }
 
+    @Test
+    public void testDefaultTypeResolverNestedChain() {
+        Type wrappedType = factory.getWrappedType(String.class, new Class[]{TestWrapper.class, TestWrapper.class}, new Annotation[]{}, new Annotation[]{});
+
+        assertThat("Every wrapper is supposed to wrap the inner one", wrappedType, is(equalTo(new TypeToken<TestWrapper<TestWrapper<String>>>() {
+        }.getType())));
+    }
+
+    @Test
+    public void testDeclaredTypeParameterDefaultsToBound() {
+        Type wrappedType = factory.getWrappedType(String.class, new Class[]{Page.class}, new Annotation[]{}, new Annotation[]{});
+
+        assertThat(wrappedType, is(equalTo(new TypeToken<Page<String, Number>>() {
+        }.getType())));
+    }
+
+    @Test
+    public void testDeclaredTypeParameterBinding() {
+        Type wrappedType = factory.getWrappedType(Integer.class, new Class[]{Page.class, Result.class}, new Annotation[]{}, new Annotation[]{});
+
+        assertThat(wrappedType, is(equalTo(new TypeToken<Page<Result<String, Integer>, Number>>() {
+        }.getType())));
+    }
+
     @Test
     public void testDefaultTypeResolverNoTypeParameter() {
         Type wrappedType = factory.getWrappedType(String.class, new Class[]{Object.class, TestWrapper.class, TestWrapper.class}, new Annotation[]{}, new Annotation[]{});
@@ -160,4 +216,116 @@ public class InWrapperConverterFactoryTest {
         String unwrapped = (String) factory.chainUnwrap(wrapped, wrapperChain, new Annotation[]{});
         assertThat("Unwrapped value mismatch", unwrapped, is(equalTo(toWrap)));
     }
-}
+
+    @Test(expected = RuntimeException.class)
+    public void testResolveUnwrappersFailsFastForUnknownWrapper() {
+        // the whole chain is resolved before any data is processed
+        factory.resolveUnwrappers(new Class[]{TestWrapper.class, Object.class});
+    }
+
+    @Test
+    public void testPrecompiledPackUnwrap() {
+        String toWrap = "test";
+
+        Class[] wrapperChain = new Class[]{TestWrapper.class, TestWrapper.class};
+        InWrapperConverterFactory.RequestPacker[] packers = factory.resolvePackers(wrapperChain);
+        InWrapperConverterFactory.ResponseUnwrapper[] unwrappers = factory.resolveUnwrappers(wrapperChain);
+
+        assertThat("Packers chain length mismatch", packers.length, is(equalTo(wrapperChain.length)));
+        assertThat("Unwrappers chain length mismatch", unwrappers.length, is(equalTo(wrapperChain.length)));
+
+        Object wrapped = factory.chainPack(toWrap, packers, new Annotation[]{}, new Annotation[]{});
+        String unwrapped = (String) factory.chainUnwrap(wrapped, unwrappers, new Annotation[]{});
+        assertThat("Unwrapped value mismatch", unwrapped, is(equalTo(toWrap)));
+    }
+
+    @Test
+    public void testWrappedTypeEqualsReflectedType() throws NoSuchFieldException {
+        Type wrappedType = factory.getWrappedType(String.class, new Class[]{TestWrapper.class}, new Annotation[]{}, new Annotation[]{});
+        Type nestedWrappedType = factory.getWrappedType(String.class, new Class[]{TestWrapper.class, TestWrapper.class}, new Annotation[]{}, new Annotation[]{});
+
+        // types of JDK implementation, as obtained through reflection
+        assertTypesEqual(wrappedType, ReflectedTypes.class.getDeclaredField("wrapper").getGenericType());
+        assertTypesEqual(nestedWrappedType, ReflectedTypes.class.getDeclaredField("nestedWrapper").getGenericType());
+    }
+
+    @Test
+    public void testWrappedTypeEqualsGsonType() {
+        Type wrappedType = factory.getWrappedType(String.class, new Class[]{TestWrapper.class}, new Annotation[]{}, new Annotation[]{});
+
+        assertTypesEqual(wrappedType, new TypeToken<TestWrapper<String>>() {
+        }.getType());
+    }
+
+    private static void assertTypesEqual(Type wrappedType, Type otherType) {
+        assertThat("Wrapped type should be equal to the other one", wrappedType, is(equalTo(otherType)));
+        assertThat("The other type should be equal to wrapped one", otherType, is(equalTo(wrappedType)));
+        assertThat("Hash codes mismatch", wrappedType.hashCode(), is(equalTo(otherType.hashCode())));
+        assertThat("String representation mismatch", wrappedType.toString(), is(equalTo(otherType.toString())));
+    }
+
+    @Test
+    public void testWrappedTypeCached() {
+        Type first = factory.getWrappedType(String.class, new Class[]{TestWrapper.class, TestWrapper.class}, new Annotation[]{}, new Annotation[]{});
+        Type second = factory.getWrappedType(String.class, new Class[]{TestWrapper.class, TestWrapper.class}, new Annotation[]{}, new Annotation[]{});
+
+        assertThat("Wrapped type should be resolved once", second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void testBuilderChangesAfterBuildIgnored() {
+        InWrapperConverterFactory.Builder builder = new InWrapperConverterFactory.Builder();
+        InWrapperConverterFactory builtFactory = builder.build();
+
+        builder.registerUnwrapper(TestWrapper.class, new TestUnwrapper<>());
+
+        try {
+            builtFactory.resolveUnwrappers(new Class[]{TestWrapper.class});
+            throw new AssertionError("Factory should not see handlers registered in builder after build()");
+        } catch (RuntimeException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRuntimeRegistration() {
+        InWrapperConverterFactory runtimeFactory = new InWrapperConverterFactory.Builder().build();
+
+        runtimeFactory.registerPacker(TestWrapper.class, new TestPacker<>())
+                .registerUnwrapper(TestWrapper.class, new TestUnwrapper<>());
+
+        String toWrap = "test";
+        Class[] wrapperChain = new Class[]{TestWrapper.class, TestWrapper.class};
+        Object wrapped = runtimeFactory.chainPack(toWrap, wrapperChain, new Annotation[]{}, new Annotation[]{});
+        String unwrapped = (String) runtimeFactory.chainUnwrap(wrapped, wrapperChain, new Annotation[]{});
+        assertThat("Unwrapped value mismatch", unwrapped, is(equalTo(toWrap)));
+    }
+
+    @Test
+    public void testUnwrapperResolvedForSubclass() {
+        Class[] wrapperChain = new Class[]{TestWrapperSubclass.class, TestWrapper.class};
+        Object wrapped = new TestWrapperSubclass<>(new TestWrapper<>("test"));
+
+        String unwrapped = (String) factory.chainUnwrap(wrapped, wrapperChain, new Annotation[]{});
+        assertThat("Unwrapped value mismatch", unwrapped, is(equalTo("test")));
+    }
+
+    @Test
+    public void testHandlersResolvedForInterface() {
+        InWrapperConverterFactory interfaceFactory = new InWrapperConverterFactory.Builder()
+                .registerUnwrapper(ValueHolder.class, new InWrapperConverterFactory.ResponseUnwrapper<ValueHolder, Object>() {
+                    @Override
+                    public Object unwrap(ValueHolder wrapper, int depth, Annotation[] annotations) {
+                        return wrapper.getValue();
+                    }
+                })
+                .build();
+
+        InWrapperConverterFactory.ResponseUnwrapper[] first = interfaceFactory.resolveUnwrappers(new Class[]{InterfaceWrapper.class});
+        InWrapperConverterFactory.ResponseUnwrapper[] second = interfaceFactory.resolveUnwrappers(new Class[]{InterfaceWrapper.class});
+        assertThat("Resolved unwrapper mismatch", second[0], is(sameInstance(first[0])));
+
+        Object unwrapped = interfaceFactory.chainUnwrap(new InterfaceWrapper(), new Class[]{InterfaceWrapper.class}, new Annotation[]{});
+        assertThat("Unwrapped value mismatch", unwrapped, is(equalTo((Object) "value")));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.github.amaksoft.inwrapper;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+import retrofit2.Converter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit-tests for {@link InstrumentedConverters}
+ */
+public class InstrumentedConvertersTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final ConverterMetrics.CallSite CALL_SITE = new ConverterMetrics.CallSite(ConverterMetrics.Direction.RESPONSE,
+            Integer.class, new Class[]{}, new Annotation[]{});
+
+    /**
+     * Records reported events
+     */
+    private static class RecordingMetrics implements ConverterMetrics {
+        final List<String> events = new ArrayList<>();
+        long deserializeNanos;
+
+        @Override
+        public void onResponse(CallSite callSite, long deserializeNanos, long unwrapNanos, long contentLength) {
+            this.deserializeNanos = deserializeNanos;
+            events.add("response " + contentLength);
+        }
+
+        @Override
+        public void onRequest(CallSite callSite, long packNanos, long serializeNanos, long contentLength) {
+            events.add("request " + contentLength);
+        }
+
+        @Override
+        public void onFailure(CallSite callSite, Phase phase, Throwable error) {
+            events.add("failure " + phase + " " + error.getMessage());
+        }
+    }
+
+    /**
+     * Iterates elements, throwing for {@code null} ones, like streaming unwrappers do for malformed elements
+     */
+    private static class ListIterator implements CloseableIterator<Integer> {
+        private final Iterator<Integer> elements;
+        boolean closed;
+
+        ListIterator(Integer... elements) {
+            this.elements = Arrays.asList(elements).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return elements.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            Integer element = elements.next();
+            if (element == null) {
+                throw new IllegalStateException("malformed");
+            }
+            return element;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static CloseableIterator<?> iterate(final ListIterator iterator, ConverterMetrics metrics) throws IOException {
+        Converter<ResponseBody, Object> converter = InstrumentedConverters.streamingUnwrapping(new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(@Nonnull ResponseBody value) throws IOException {
+                return iterator;
+            }
+        }, metrics, CALL_SITE);
+        return (CloseableIterator<?>) converter.convert(ResponseBody.create(JSON, "[1,2,3]"));
+    }
+
+    @Test
+    public void testIteratorReportedWhenOver() throws IOException {
+        RecordingMetrics metrics = new RecordingMetrics();
+        CloseableIterator<?> iterator = iterate(new ListIterator(1, 2, 3), metrics);
+        assertThat("Nothing expected to be reported before iteration", metrics.events.isEmpty());
+
+        List<Object> elements = new ArrayList<>();
+        while (iterator.hasNext()) {
+            elements.add(iterator.next());
+        }
+        iterator.close();
+
+        assertThat(elements, is(equalTo(Arrays.<Object>asList(1, 2, 3))));
+        assertThat("Single report expected", metrics.events, is(equalTo(Arrays.asList("response 7"))));
+        assertThat("Iteration time expected to be reported", metrics.deserializeNanos > 0);
+    }
+
+    @Test
+    public void testIteratorReportedWhenClosedEarly() throws IOException {
+        RecordingMetrics metrics = new RecordingMetrics();
+        ListIterator delegate = new ListIterator(1, 2, 3);
+        CloseableIterator<?> iterator = iterate(delegate, metrics);
+
+        iterator.next();
+        iterator.close();
+
+        assertThat("Delegate expected to be closed", delegate.closed);
+        assertThat(metrics.events, is(equalTo(Arrays.asList("response 7"))));
+    }
+
+    @Test
+    public void testIteratorFailureReported() throws IOException {
+        RecordingMetrics metrics = new RecordingMetrics();
+        CloseableIterator<?> iterator = iterate(new ListIterator(1, null, 3), metrics);
+
+        iterator.next();
+        try {
+            iterator.next();
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is(equalTo("malformed")));
+        }
+        iterator.close();
+
+        assertThat("Only the failure expected to be reported", metrics.events,
+                is(equalTo(Arrays.asList("failure DESERIALIZE malformed"))));
+    }
+}
\ No newline at end of file
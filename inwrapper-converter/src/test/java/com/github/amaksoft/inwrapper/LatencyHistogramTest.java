@@ -0,0 +1,52 @@
+package com.github.amaksoft.inwrapper;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Unit-tests for {@link LatencyHistogram}
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsAreContiguous() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long lowest = LatencyHistogram.bucketLowestValue(index);
+            assertThat("Value " + value + " is below its bucket", lowest <= value);
+            assertThat("Value " + value + " is above its bucket", LatencyHistogram.bucketIndex(lowest) == index);
+        }
+        assertThat("Max value bucket out of range",
+                LatencyHistogram.bucketLowestValue(LatencyHistogram.bucketIndex(Long.MAX_VALUE)) <= Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertThat(histogram.getCount(), is(equalTo(1000L)));
+        assertThat(histogram.getMax(), is(equalTo(1000000L)));
+
+        long median = histogram.getValueAtPercentile(50);
+        assertThat("Median is too far from expected: " + median, Math.abs(median - 500000) <= 500000 / 32);
+
+        long p99 = histogram.getValueAtPercentile(99);
+        assertThat("P99 is too far from expected: " + p99, Math.abs(p99 - 990000) <= 990000 / 32);
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+        histogram.reset();
+
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getValueAtPercentile(100), is(equalTo(0L)));
+    }
+}
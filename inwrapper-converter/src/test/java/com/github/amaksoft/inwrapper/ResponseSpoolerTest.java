@@ -0,0 +1,167 @@
+package com.github.amaksoft.inwrapper;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Converter;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit-tests for {@link ResponseSpooler}
+ */
+public class ResponseSpoolerTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final int THRESHOLD = 100;
+
+    private File directory;
+    private ResponseSpooler spooler;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("inwrapper-spool").toFile();
+        // small mapping window, so that bodies are read through several regions
+        spooler = new ResponseSpooler(THRESHOLD, directory, 7);
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        directory.delete();
+    }
+
+    private static String json(int length) {
+        StringBuilder builder = new StringBuilder("{\"data\":\"");
+        while (builder.length() < length - 2) {
+            builder.append((char) ('a' + builder.length() % 26));
+        }
+        return builder.append("\"}").toString();
+    }
+
+    private static ResponseBody unknownLengthBody(String content) {
+        return ResponseBody.create(JSON, -1, new Buffer().writeUtf8(content));
+    }
+
+    @Test
+    public void testSmallBodyPassedAsIs() throws IOException {
+        ResponseBody body = ResponseBody.create(JSON, json(THRESHOLD));
+        assertThat(spooler.spool(body), is(sameInstance(body)));
+        assertThat("Nothing expected to be spooled", spooler.spooledCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testLargeBodySpooled() throws IOException {
+        String content = json(1000);
+        ResponseBody spooled = spooler.spool(ResponseBody.create(JSON, content));
+
+        assertThat(spooler.spooledCount(), is(equalTo(1L)));
+        assertThat(directory.list().length, is(equalTo(1)));
+        assertThat("Content length mismatch", spooled.contentLength(), is(equalTo(1000L)));
+        assertThat("Content mismatch", spooled.string(), is(equalTo(content)));
+        assertThat("Spooled file expected to be deleted on close", directory.list().length, is(equalTo(0)));
+    }
+
+    @Test
+    public void testUnknownLengthBody() throws IOException {
+        String small = json(THRESHOLD);
+        assertThat(spooler.spool(unknownLengthBody(small)).string(), is(equalTo(small)));
+        assertThat("Body within threshold expected to stay in memory", spooler.spooledCount(), is(equalTo(0L)));
+
+        String large = json(THRESHOLD + 1);
+        assertThat(spooler.spool(unknownLengthBody(large)).string(), is(equalTo(large)));
+        assertThat(spooler.spooledCount(), is(equalTo(1L)));
+        assertThat(directory.list().length, is(equalTo(0)));
+    }
+
+    @Test
+    public void testSpoolingConverterClosesBodyOnFailure() throws IOException {
+        Converter<ResponseBody, ?> converter = spooler.spooling(new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(@Nonnull ResponseBody value) throws IOException {
+                assertThat(directory.list().length, is(equalTo(1)));
+                throw new IOException("malformed");
+            }
+        });
+
+        try {
+            converter.convert(ResponseBody.create(JSON, json(1000)));
+            fail("Exception expected");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is(equalTo("malformed")));
+        }
+        assertThat("Spooled file expected to be deleted", directory.list().length, is(equalTo(0)));
+    }
+
+    @Test
+    public void testSpoolingConverterClosesBodyAfterConversion() throws IOException {
+        Converter<ResponseBody, ?> converter = spooler.spooling(new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(@Nonnull ResponseBody value) throws IOException {
+                // reads the body without closing it
+                return value.source().readUtf8();
+            }
+        });
+
+        String content = json(1000);
+        assertThat(converter.convert(ResponseBody.create(JSON, content)), is(equalTo((Object) content)));
+        assertThat("Spooled file expected to be deleted", directory.list().length, is(equalTo(0)));
+    }
+
+    @Test
+    public void testSpoolingConverterKeepsIteratorBodyOpen() throws IOException {
+        final String content = json(1000);
+        Converter<ResponseBody, ?> converter = spooler.spooling(new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(@Nonnull final ResponseBody value) throws IOException {
+                return new CloseableIterator<String>() {
+                    private boolean read;
+
+                    @Override
+                    public boolean hasNext() {
+                        return !read;
+                    }
+
+                    @Override
+                    public String next() {
+                        read = true;
+                        try {
+                            return value.source().readUtf8();
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+
+                    @Override
+                    public void close() {
+                        value.close();
+                    }
+                };
+            }
+        });
+
+        //noinspection unchecked
+        CloseableIterator<String> iterator = (CloseableIterator<String>) converter.convert(ResponseBody.create(JSON, content));
+        assertThat("Spooled file expected to stay until the iterator is closed", directory.list().length, is(equalTo(1)));
+        assertThat(iterator.next(), is(equalTo(content)));
+        iterator.close();
+        assertThat("Spooled file expected to be deleted", directory.list().length, is(equalTo(0)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.github.amaksoft.inwrapper;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+import retrofit2.Converter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+/**
+ * Unit-tests for {@link UnwrappedResponseCache}
+ */
+public class UnwrappedResponseCacheTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    /**
+     * Returns a new string built from body for every call, or {@code null} for empty body
+     */
+    private static class CountingConverter implements Converter<ResponseBody, String> {
+        int conversions;
+
+        @Override
+        public String convert(@Nonnull ResponseBody value) throws IOException {
+            conversions++;
+            String string = value.string();
+            return string.isEmpty() ? null : new String(string);
+        }
+    }
+
+    private static Object convert(Converter<ResponseBody, ?> converter, String body) throws IOException {
+        return converter.convert(ResponseBody.create(JSON, body));
+    }
+
+    @Test
+    public void testHit() throws IOException {
+        UnwrappedResponseCache cache = new UnwrappedResponseCache(10);
+        CountingConverter delegate = new CountingConverter();
+        Converter<ResponseBody, ?> converter = cache.memoize(delegate);
+
+        Object first = convert(converter, "{\"value\":1}");
+        Object second = convert(converter, "{\"value\":1}");
+        Object other = convert(converter, "{\"value\":2}");
+
+        assertThat("Cached value expected", second, is(sameInstance(first)));
+        assertThat("Value mismatch", other, is(equalTo((Object) "{\"value\":2}")));
+        assertThat(delegate.conversions, is(equalTo(2)));
+        assertThat(cache.hitCount(), is(equalTo(1L)));
+        assertThat(cache.missCount(), is(equalTo(2L)));
+        assertThat(cache.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testNullValue() throws IOException {
+        UnwrappedResponseCache cache = new UnwrappedResponseCache(10);
+        CountingConverter delegate = new CountingConverter();
+        Converter<ResponseBody, ?> converter = cache.memoize(delegate);
+
+        assertThat(convert(converter, ""), is(nullValue()));
+        assertThat(convert(converter, ""), is(nullValue()));
+        assertThat("Null value should be cached", delegate.conversions, is(equalTo(1)));
+    }
+
+    @Test
+    public void testConvertersDontShareEntries() throws IOException {
+        UnwrappedResponseCache cache = new UnwrappedResponseCache(10);
+        CountingConverter delegate = new CountingConverter();
+
+        convert(cache.memoize(delegate), "{}");
+        convert(cache.memoize(delegate), "{}");
+
+        assertThat(delegate.conversions, is(equalTo(2)));
+        assertThat(cache.hitCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws IOException {
+        UnwrappedResponseCache cache = new UnwrappedResponseCache(2);
+        CountingConverter delegate = new CountingConverter();
+        Converter<ResponseBody, ?> converter = cache.memoize(delegate);
+
+        convert(converter, "a");
+        convert(converter, "b");
+        convert(converter, "a");
+        convert(converter, "c");
+
+        assertThat(cache.size(), is(equalTo(2)));
+        assertThat(cache.evictionCount(), is(equalTo(1L)));
+
+        convert(converter, "a");
+        assertThat("Recently used value should be kept", delegate.conversions, is(equalTo(3)));
+        convert(converter, "b");
+        assertThat("Least recently used value should be evicted", delegate.conversions, is(equalTo(4)));
+    }
+
+    @Test
+    public void testConcurrentConversionsStayWithinMaxEntries() throws Exception {
+        final UnwrappedResponseCache cache = new UnwrappedResponseCache(64);
+        final Converter<ResponseBody, ?> converter = cache.memoize(new Converter<ResponseBody, String>() {
+            @Override
+            public String convert(@Nonnull ResponseBody value) throws IOException {
+                return value.string();
+            }
+        });
+
+        final int threads = 8;
+        final int conversions = 2000;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < conversions; i++) {
+                            String body = "{\"value\":" + (i % 200) + "}";
+                            assertThat(convert(converter, body), is(equalTo((Object) body)));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat("Conversion failed: " + failure.get(), failure.get(), is(nullValue()));
+        assertThat("Every conversion should be a hit or a miss", cache.hitCount() + cache.missCount(),
+                is(equalTo((long) threads * conversions)));
+        assertThat("Cache should be full", cache.size(), is(equalTo(64)));
+        // concurrent misses of the same body replace each other's entries instead of evicting
+        assertThat("Evictions should be within misses over capacity", cache.evictionCount() <= cache.missCount() - 64);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,307 @@
+package com.github.amaksoft.inwrapper.processor;
+
+import com.github.amaksoft.inwrapper.GenerateHandlers;
+import com.github.amaksoft.inwrapper.WrappedData;
+import com.github.amaksoft.inwrapper.WrappedTypeParameter;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor generating reflection-free handlers for wrapper classes annotated with {@link GenerateHandlers}.<br/>
+ * <p>
+ * For every wrapper class {@code W} a {@code W_InWrapperHandlers} class is generated in the same package,
+ * containing {@code Unwrapper}, {@code Packer} (if {@code W} has a constructor taking the wrapped data)
+ * and {@code TypeResolver} implementations. Type resolver substitutes the wrapped data type for the type variable
+ * of {@link WrappedData} member and erasures of their bounds for other type variables,
+ * so wrappers with several type parameters are supported too.<br/>
+ * <p>
+ * Type resolver is only generated if the default one can't resolve the wrapper, i.e. for wrappers with several type parameters
+ * not annotated with {@link WrappedTypeParameter}. Wrapped types of chains with custom resolvers are not cached,
+ * so wrappers with a single type parameter and annotated ones keep the default resolver.<br/>
+ * <p>
+ * All the handlers are collected in a single {@link com.github.amaksoft.inwrapper.InWrapperConverterFactory.HandlerRegistry},
+ * {@value #DEFAULT_REGISTRY_CLASS} by default. Its name can be changed with {@code -A}{@value #OPTION_REGISTRY_CLASS} option.
+ */
+@SupportedAnnotationTypes("com.github.amaksoft.inwrapper.GenerateHandlers")
+@SupportedOptions(InWrapperProcessor.OPTION_REGISTRY_CLASS)
+public class InWrapperProcessor extends AbstractProcessor {
+    static final String OPTION_REGISTRY_CLASS = "inwrapper.registryClass";
+    static final String DEFAULT_REGISTRY_CLASS = "com.github.amaksoft.inwrapper.generated.GeneratedHandlerRegistry";
+    static final String HANDLERS_SUFFIX = "_InWrapperHandlers";
+
+    /**
+     * Referenced by name, so the processor does not need the converter runtime dependencies on its path
+     */
+    private static final String FACTORY = "com.github.amaksoft.inwrapper.InWrapperConverterFactory";
+
+    private final List<Handlers> generated = new ArrayList<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+    private boolean registryWritten;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(GenerateHandlers.class);
+        for (Element element : elements) {
+            Handlers handlers = inspect(element);
+            if (handlers != null && write(handlers.handlersClass, handlers.source(), element)) {
+                generated.add(handlers);
+                originatingElements.add(element);
+            }
+        }
+
+        // the registry is written in the round after the last one with annotated classes,
+        // so it is still a subject to compilation in a regular round
+        if (!registryWritten && !generated.isEmpty() && (elements.isEmpty() || roundEnv.processingOver())) {
+            writeRegistry();
+            registryWritten = true;
+        }
+        return true;
+    }
+
+    private Handlers inspect(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return error(element, "@%s is only applicable to classes", GenerateHandlers.class.getSimpleName());
+        }
+        TypeElement wrapper = (TypeElement) element;
+        for (Element e = wrapper; e.getKind() == ElementKind.CLASS; e = e.getEnclosingElement()) {
+            if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                return error(element, "Wrapper class %s and its enclosing classes have to be public", wrapper.getQualifiedName());
+            }
+            if (((TypeElement) e).getNestingKind() == NestingKind.MEMBER && !e.getModifiers().contains(Modifier.STATIC)) {
+                return error(element, "Nested wrapper class %s has to be static", wrapper.getQualifiedName());
+            }
+        }
+
+        Element dataMember = null;
+        TypeMirror dataType = null;
+        for (Element member : wrapper.getEnclosedElements()) {
+            if (member.getAnnotation(WrappedData.class) == null) {
+                continue;
+            }
+            if (dataMember != null) {
+                return error(member, "Only one member of %s can be annotated with @%s", wrapper.getQualifiedName(), WrappedData.class.getSimpleName());
+            }
+            if (member.getModifiers().contains(Modifier.PRIVATE) || member.getModifiers().contains(Modifier.STATIC)) {
+                return error(member, "@%s member has to be a non-private instance member", WrappedData.class.getSimpleName());
+            }
+            if (member.getKind() == ElementKind.METHOD) {
+                ExecutableElement method = (ExecutableElement) member;
+                if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+                    return error(member, "@%s method has to return a value and take no arguments", WrappedData.class.getSimpleName());
+                }
+                dataType = method.getReturnType();
+            } else {
+                dataType = member.asType();
+            }
+            dataMember = member;
+        }
+        if (dataMember == null) {
+            return error(element, "No member of %s is annotated with @%s", wrapper.getQualifiedName(), WrappedData.class.getSimpleName());
+        }
+
+        List<? extends TypeParameterElement> typeParameters = wrapper.getTypeParameters();
+        int dataTypeIndex = -1;
+        for (int i = 0; i < typeParameters.size(); i++) {
+            if (processingEnv.getTypeUtils().isSameType(typeParameters.get(i).asType(), dataType)) {
+                dataTypeIndex = i;
+            }
+        }
+        if (!typeParameters.isEmpty() && dataTypeIndex < 0) {
+            return error(dataMember, "Type of @%s member of generic wrapper has to be one of its type variables", WrappedData.class.getSimpleName());
+        }
+
+        WrappedTypeParameter declaration = wrapper.getAnnotation(WrappedTypeParameter.class);
+        if (declaration != null && (dataTypeIndex < 0 || !typeParameters.get(dataTypeIndex).getSimpleName().contentEquals(declaration.value()))) {
+            return error(element, "@%s of %s has to name the type variable of @%s member", WrappedTypeParameter.class.getSimpleName(),
+                    wrapper.getQualifiedName(), WrappedData.class.getSimpleName());
+        }
+        boolean hasTypeResolver = typeParameters.size() > 1 && declaration == null;
+
+        ExecutableElement packingConstructor = null;
+        if (!wrapper.getModifiers().contains(Modifier.ABSTRACT)) {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(wrapper.getEnclosedElements())) {
+                if (!constructor.getModifiers().contains(Modifier.PRIVATE) && constructor.getParameters().size() == 1
+                        && processingEnv.getTypeUtils().isSameType(constructor.getParameters().get(0).asType(), dataType)) {
+                    packingConstructor = constructor;
+                }
+            }
+        }
+
+        return new Handlers(wrapper, dataMember, dataType, dataTypeIndex, packingConstructor != null, hasTypeResolver);
+    }
+
+    private Handlers error(Element element, String format, Object... args) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+        return null;
+    }
+
+    private boolean write(String className, String source, Element... originatingElements) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(className, originatingElements);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+            return true;
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + className + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeRegistry() {
+        String registryClass = processingEnv.getOptions().get(OPTION_REGISTRY_CLASS);
+        if (registryClass == null || registryClass.isEmpty()) {
+            registryClass = DEFAULT_REGISTRY_CLASS;
+        }
+        int lastDot = registryClass.lastIndexOf('.');
+
+        StringBuilder sb = new StringBuilder();
+        if (lastDot > 0) {
+            sb.append("package ").append(registryClass.substring(0, lastDot)).append(";\n\n");
+        }
+        sb.append("/**\n * Handlers generated for classes annotated with {@link ").append(GenerateHandlers.class.getCanonicalName()).append("}\n */\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(registryClass.substring(lastDot + 1))
+                .append(" implements ").append(FACTORY).append(".HandlerRegistry {\n");
+        sb.append("    @Override\n");
+        sb.append("    public void registerHandlers(").append(FACTORY).append(".Builder builder) {\n");
+        for (Handlers handlers : generated) {
+            String wrapperClass = handlers.wrapper.getQualifiedName() + ".class";
+            sb.append("        builder.registerUnwrapper(").append(wrapperClass).append(", new ").append(handlers.handlersClass).append(".Unwrapper());\n");
+            if (handlers.hasPacker) {
+                sb.append("        builder.registerPacker(").append(wrapperClass).append(", new ").append(handlers.handlersClass).append(".Packer());\n");
+            }
+            if (handlers.hasTypeResolver) {
+                sb.append("        builder.registerTypeResolver(").append(wrapperClass).append(", new ").append(handlers.handlersClass).append(".TypeResolver());\n");
+            }
+        }
+        sb.append("    }\n}\n");
+
+        write(registryClass, sb.toString(), originatingElements.toArray(new Element[originatingElements.size()]));
+    }
+
+    /**
+     * Generated handlers of a single wrapper class
+     */
+    private class Handlers {
+        final TypeElement wrapper;
+        final Element dataMember;
+        final TypeMirror dataType;
+        final int dataTypeIndex;
+        final boolean hasPacker;
+        final boolean hasTypeResolver;
+        final String packageName;
+        final String handlersClass;
+
+        Handlers(TypeElement wrapper, Element dataMember, TypeMirror dataType, int dataTypeIndex, boolean hasPacker, boolean hasTypeResolver) {
+            this.wrapper = wrapper;
+            this.dataMember = dataMember;
+            this.dataType = dataType;
+            this.dataTypeIndex = dataTypeIndex;
+            this.hasPacker = hasPacker;
+            this.hasTypeResolver = hasTypeResolver;
+
+            PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(wrapper);
+            this.packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+            String simpleName = packageName.isEmpty()
+                    ? wrapper.getQualifiedName().toString()
+                    : wrapper.getQualifiedName().toString().substring(packageName.length() + 1);
+            String handlersSimpleName = simpleName.replace('.', '_') + HANDLERS_SUFFIX;
+            this.handlersClass = packageName.isEmpty() ? handlersSimpleName : packageName + "." + handlersSimpleName;
+        }
+
+        String source() {
+            List<? extends TypeParameterElement> typeParameters = wrapper.getTypeParameters();
+            StringBuilder declaration = new StringBuilder();
+            StringBuilder usage = new StringBuilder();
+            StringBuilder resolvedArguments = new StringBuilder();
+            for (int i = 0; i < typeParameters.size(); i++) {
+                TypeParameterElement typeParameter = typeParameters.get(i);
+                String separator = i == 0 ? "" : ", ";
+                declaration.append(separator).append(typeParameter.getSimpleName());
+                String boundSeparator = " extends ";
+                for (TypeMirror bound : typeParameter.getBounds()) {
+                    if (bound.toString().equals(Object.class.getName())) continue;
+                    declaration.append(boundSeparator).append(bound);
+                    boundSeparator = " & ";
+                }
+                usage.append(separator).append(typeParameter.getSimpleName());
+                resolvedArguments.append(separator).append(i == dataTypeIndex ? "typeToWrap"
+                        : processingEnv.getTypeUtils().erasure(typeParameter.asType()) + ".class");
+            }
+            String typeDeclaration = typeParameters.isEmpty() ? "" : "<" + declaration + ">";
+            String wrapperType = wrapper.getQualifiedName() + (typeParameters.isEmpty() ? "" : "<" + usage + ">");
+            String data = dataType.toString();
+            String access = dataMember.getKind() == ElementKind.METHOD ? dataMember.getSimpleName() + "()" : dataMember.getSimpleName().toString();
+            String simpleName = handlersClass.substring(handlersClass.lastIndexOf('.') + 1);
+
+            StringBuilder sb = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                sb.append("package ").append(packageName).append(";\n\n");
+            }
+            sb.append("import java.lang.annotation.Annotation;\n");
+            if (hasTypeResolver) {
+                sb.append("import java.lang.reflect.Type;\n");
+            }
+            sb.append('\n');
+            sb.append("/**\n * Handlers generated for {@link ").append(wrapper.getQualifiedName()).append("}\n */\n");
+            sb.append("public final class ").append(simpleName).append(" {\n");
+            sb.append("    private ").append(simpleName).append("() {\n    }\n");
+
+            sb.append("\n    public static final class Unwrapper").append(typeDeclaration)
+                    .append(" implements ").append(FACTORY).append(".ResponseUnwrapper<").append(wrapperType).append(", ").append(data).append("> {\n");
+            sb.append("        @Override\n");
+            sb.append("        public ").append(data).append(" unwrap(").append(wrapperType).append(" wrapper, int depth, Annotation[] annotations) {\n");
+            sb.append("            return wrapper.").append(access).append(";\n");
+            sb.append("        }\n    }\n");
+
+            if (hasPacker) {
+                sb.append("\n    public static final class Packer").append(typeDeclaration)
+                        .append(" implements ").append(FACTORY).append(".RequestPacker<").append(wrapperType).append(", ").append(data).append("> {\n");
+                sb.append("        @Override\n");
+                sb.append("        public ").append(wrapperType).append(" pack(").append(data)
+                        .append(" data, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {\n");
+                sb.append("            return new ").append(wrapperType).append("(data);\n");
+                sb.append("        }\n    }\n");
+            }
+
+            if (hasTypeResolver) {
+                sb.append("\n    public static final class TypeResolver extends ").append(FACTORY).append(".TypeResolver {\n");
+                sb.append("        @Override\n");
+                sb.append("        protected Type resolveType(Type typeToWrap, Class wrapperClass, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {\n");
+                sb.append("            return createParametrizedType(").append(wrapper.getQualifiedName()).append(".class, new Type[]{")
+                        .append(resolvedArguments).append("});\n");
+                sb.append("        }\n    }\n");
+            }
+            sb.append("}\n");
+            return sb.toString();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.github.amaksoft.inwrapper;
+
+import com.github.amaksoft.inwrapper.processor.InWrapperProcessor;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+/**
+ * Tests for handlers generated by {@link InWrapperProcessor}.
+ * Wrapper sources are compiled with the processor in test setup and generated handlers are used with {@link InWrapperConverterFactory}
+ */
+public class GeneratedHandlersTest {
+
+    private static final String ENVELOPE_SOURCE = "package test;\n"
+            + "import com.github.amaksoft.inwrapper.GenerateHandlers;\n"
+            + "import com.github.amaksoft.inwrapper.WrappedData;\n"
+            + "@GenerateHandlers\n"
+            + "public class Envelope<E extends Number, T> {\n"
+            + "    E code;\n"
+            + "    @WrappedData final T payload;\n"
+            + "    public Envelope(T payload) { this.payload = payload; }\n"
+            + "}\n";
+
+    private static final String TEXT_SOURCE = "package test;\n"
+            + "import com.github.amaksoft.inwrapper.GenerateHandlers;\n"
+            + "import com.github.amaksoft.inwrapper.WrappedData;\n"
+            + "public class Outer {\n"
+            + "    @GenerateHandlers\n"
+            + "    public static class Text {\n"
+            + "        private final String text = \"TEXT\";\n"
+            + "        @WrappedData public String getText() { return text; }\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String PAGE_SOURCE = "package test;\n"
+            + "import com.github.amaksoft.inwrapper.GenerateHandlers;\n"
+            + "import com.github.amaksoft.inwrapper.WrappedData;\n"
+            + "import com.github.amaksoft.inwrapper.WrappedTypeParameter;\n"
+            + "@GenerateHandlers\n"
+            + "@WrappedTypeParameter(\"T\")\n"
+            + "public class Page<T, C extends CharSequence> {\n"
+            + "    C cursor;\n"
+            + "    @WrappedData final T items;\n"
+            + "    public Page(T items) { this.items = items; }\n"
+            + "}\n";
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private static ClassLoader classLoader;
+
+    @BeforeClass
+    public static void compile() throws Exception {
+        File output = Files.createTempDirectory("inwrapper-processor").toFile();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+
+        List<String> options = Arrays.asList("-d", output.getPath(), "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                Arrays.asList(new Source("test/Envelope", ENVELOPE_SOURCE), new Source("test/Outer", TEXT_SOURCE), new Source("test/Page", PAGE_SOURCE)));
+        task.setProcessors(Collections.singletonList(new InWrapperProcessor()));
+        boolean success = task.call();
+        fileManager.close();
+
+        StringBuilder errors = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            errors.append(diagnostic).append('\n');
+        }
+        assertThat("Compilation failed:\n" + errors, success);
+
+        classLoader = new URLClassLoader(new URL[]{output.toURI().toURL()}, GeneratedHandlersTest.class.getClassLoader());
+    }
+
+    private static InWrapperConverterFactory createFactory() throws Exception {
+        InWrapperConverterFactory.HandlerRegistry registry = (InWrapperConverterFactory.HandlerRegistry)
+                classLoader.loadClass("com.github.amaksoft.inwrapper.generated.GeneratedHandlerRegistry").newInstance();
+        return new InWrapperConverterFactory.Builder()
+                .registerHandlers(registry)
+                .build();
+    }
+
+    @Test
+    public void testResolveTypeWithSeveralTypeParameters() throws Exception {
+        Class<?> envelope = classLoader.loadClass("test.Envelope");
+        Type wrappedType = createFactory().getWrappedType(String.class, new Class[]{envelope}, NO_ANNOTATIONS, NO_ANNOTATIONS);
+
+        assertThat(wrappedType, is(instanceOf(ParameterizedType.class)));
+        ParameterizedType parameterizedType = (ParameterizedType) wrappedType;
+        assertThat(parameterizedType.getRawType(), is(equalTo((Type) envelope)));
+        assertThat("Bound expected for non-data type variable",
+                Arrays.asList(parameterizedType.getActualTypeArguments()), is(equalTo(Arrays.<Type>asList(Number.class, String.class))));
+    }
+
+    @Test
+    public void testPackUnwrap() throws Exception {
+        Class[] chain = {classLoader.loadClass("test.Envelope"), classLoader.loadClass("test.Envelope")};
+        InWrapperConverterFactory factory = createFactory();
+
+        Object packed = factory.chainPack("DATA", chain, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        assertThat(packed.getClass(), is(equalTo((Class) chain[0])));
+        assertThat(factory.chainUnwrap(packed, chain, NO_ANNOTATIONS), is(equalTo((Object) "DATA")));
+    }
+
+    @Test
+    public void testNestedClassWithGetter() throws Exception {
+        Class<?> text = classLoader.loadClass("test.Outer$Text");
+        InWrapperConverterFactory factory = createFactory();
+
+        assertThat(factory.getWrappedType(String.class, new Class[]{text}, NO_ANNOTATIONS, NO_ANNOTATIONS), is(equalTo((Type) text)));
+        assertThat(factory.chainUnwrap(text.newInstance(), new Class[]{text}, NO_ANNOTATIONS), is(equalTo((Object) "TEXT")));
+    }
+
+    @Test
+    public void testNoTypeResolverForDeclaredTypeParameter() throws Exception {
+        Class<?> page = classLoader.loadClass("test.Page");
+        InWrapperConverterFactory factory = createFactory();
+
+        Type wrappedType = factory.getWrappedType(String.class, new Class[]{page}, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        assertThat(wrappedType, is(instanceOf(ParameterizedType.class)));
+        assertThat("Bound expected for non-data type variable",
+                Arrays.asList(((ParameterizedType) wrappedType).getActualTypeArguments()), is(equalTo(Arrays.<Type>asList(String.class, CharSequence.class))));
+        assertThat("Wrapped type should be cached with the default resolver",
+                factory.getWrappedType(String.class, new Class[]{page}, NO_ANNOTATIONS, NO_ANNOTATIONS), is(sameInstance(wrappedType)));
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testNoTypeResolverForSingleTypeParameter() throws Exception {
+        classLoader.loadClass("test.Outer_Text_InWrapperHandlers$TypeResolver");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNoPackerWithoutDataConstructor() throws Exception {
+        Class<?> text = classLoader.loadClass("test.Outer$Text");
+        createFactory().chainPack("DATA", new Class[]{text}, NO_ANNOTATIONS, NO_ANNOTATIONS);
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+        private final String content;
+
+        Source(String name, String content) {
+            super(URI.create("string:///" + name + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.ChainFieldNames;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.PathWrapper;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * {@link InWrapperConverterFactory.StreamingUnwrapperFactory} for chains of {@link SingleFieldWrapper},
+ * a counterpart of {@link com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldStreamingUnwrapperFactory} for Jackson.<br/>
+ * <p>
+ * Positions {@link JsonParser} directly at the wrapped value and binds only that sub-tree to the actual data type.
+ * Sibling fields on every level are skipped with {@link JsonParser#skipChildren()}, without being bound.<br/>
+ * <p>
+ * The parser is created by the {@link JsonFactory} of given {@link ObjectMapper} over the raw bytes of response body,
+ * so any Jackson data format works, binary ones (MessagePack, CBOR, Smile) included.<br/>
+ * <p>
+ * Field to descend into on each level is taken from {@link SingleFieldWrapper.FieldName} annotation of interface method.
+ * If the annotation is absent (or has less names than wrappers in the chain), the first field of the object is used.
+ * Chain of single {@link PathWrapper} is supported as well, field names are taken from {@link PathWrapper.Path} annotation then.
+ */
+@SuppressWarnings("WeakerAccess")
+public class JacksonStreamingUnwrapperFactory implements InWrapperConverterFactory.StreamingUnwrapperFactory {
+
+    private final ObjectMapper mapper;
+
+    public JacksonStreamingUnwrapperFactory(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> create(Type dataType, Class[] wrapperClasses, Annotation[] annotations, Retrofit retrofit) {
+        String[] fieldNames = ChainFieldNames.resolve(wrapperClasses, annotations);
+        if (fieldNames == null) {
+            return null;
+        }
+        ObjectReader valueReader = mapper.readerFor(mapper.getTypeFactory().constructType(dataType));
+        return new StreamingUnwrapConverter<>(mapper.getFactory(), valueReader, fieldNames);
+    }
+
+    /**
+     * Positions {@link JsonParser} at the first token of wrapped value, skipping all the other fields of wrapper objects
+     *
+     * @param p          parser positioned before the outermost wrapper object
+     * @param fieldNames field names for each wrapper level
+     * @return number of entered wrapper objects. Equals to {@code fieldNames.length} if parser is positioned at the wrapped value,
+     * less than that if one of the wrappers is {@code null}
+     */
+    static int descend(JsonParser p, String[] fieldNames) throws IOException {
+        JsonToken token = p.nextToken();
+        for (int depth = 0; depth < fieldNames.length; depth++) {
+            if (token == JsonToken.VALUE_NULL) {
+                return depth;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw JsonMappingException.from(p, "Wrapper object expected, got " + token);
+            }
+
+            String fieldName = fieldNames[depth];
+            if (!seekField(p, fieldName)) {
+                throw JsonMappingException.from(p, "Wrapped field " + (fieldName != null ? "\"" + fieldName + "\" " : "")
+                        + "not found");
+            }
+            token = p.nextToken();
+        }
+        return fieldNames.length;
+    }
+
+    private static boolean seekField(JsonParser p, String fieldName) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            if (fieldName == null || fieldName.equals(p.getCurrentName())) {
+                return true;
+            }
+            p.nextToken();
+            p.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Skips remaining fields of entered wrapper objects and closes them
+     *
+     * @param p      parser positioned at the last token of the wrapped value
+     * @param levels number of wrapper objects to close, as returned by {@link #descend(JsonParser, String[])}
+     */
+    static void ascend(JsonParser p, int levels) throws IOException {
+        for (int i = 0; i < levels; i++) {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                p.nextToken();
+                p.skipChildren();
+            }
+        }
+    }
+
+    private static class StreamingUnwrapConverter<V> implements Converter<ResponseBody, V> {
+        private final JsonFactory factory;
+        private final ObjectReader valueReader;
+        private final String[] fieldNames;
+
+        StreamingUnwrapConverter(JsonFactory factory, ObjectReader valueReader, String[] fieldNames) {
+            this.factory = factory;
+            this.valueReader = valueReader;
+            this.fieldNames = fieldNames;
+        }
+
+        @Override
+        public V convert(@Nonnull ResponseBody body) throws IOException {
+            JsonParser parser = factory.createParser(body.byteStream());
+            try {
+                int levels = descend(parser, fieldNames);
+                V value = levels == fieldNames.length ? valueReader.<V>readValue(parser) : null;
+                ascend(parser, levels);
+                return value;
+            } finally {
+                parser.close();
+                body.close();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Jackson {@link Module} for generic {@link SingleFieldWrapper} class,
+ * a counterpart of {@link com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapperTypeAdapterFactory} for Gson.<br/>
+ * <p>
+ * During deserialization extracts single field of JSON object reading {@link JsonParser} tokens directly
+ * and creates a {@link SingleFieldWrapper} with its name and value. <br/>
+ * <p>
+ * During serialization creates a JSON object with a single field, filled with {@link SingleFieldWrapper#getData()}
+ * and named with {@link SingleFieldWrapper#getDataFieldName()} or {@link #defaultFieldName}
+ * which falls back to {@link #DEFAULT_FIELD_NAME} if not specified<br/>
+ * <p>
+ * Value type of the wrapper is resolved once per wrapper {@link JavaType},
+ * Jackson then caches the created serializers and deserializers.
+ * If field names of responses are not used, the module can be created with {@code retainFieldNames = false}.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class SingleFieldWrapperModule extends Module {
+    private static final String DEFAULT_FIELD_NAME = "data";
+
+    private final String defaultFieldName;
+    private final boolean retainFieldNames;
+
+    /**
+     * @param defaultFieldName field name for serialization of wrappers without one
+     * @param retainFieldNames whether field names should be read into deserialized wrappers
+     */
+    public SingleFieldWrapperModule(String defaultFieldName, boolean retainFieldNames) {
+        if (defaultFieldName == null || defaultFieldName.isEmpty()) {
+            this.defaultFieldName = DEFAULT_FIELD_NAME;
+        } else {
+            this.defaultFieldName = defaultFieldName;
+        }
+        this.retainFieldNames = retainFieldNames;
+    }
+
+    public SingleFieldWrapperModule(String defaultFieldName) {
+        this(defaultFieldName, true);
+    }
+
+    public SingleFieldWrapperModule() {
+        this(null);
+    }
+
+    @Override
+    public String getModuleName() {
+        return "SingleFieldWrapperModule";
+    }
+
+    @Override
+    public Version version() {
+        return Version.unknownVersion();
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        context.addSerializers(new WrapperSerializers(new SerializedString(defaultFieldName)));
+        context.addDeserializers(new WrapperDeserializers(retainFieldNames));
+    }
+
+    private static JavaType getValueType(JavaType wrapperType) {
+        JavaType[] params = wrapperType.findTypeParameters(SingleFieldWrapper.class);
+        return params.length == 1 ? params[0] : null;
+    }
+
+    private static class WrapperSerializers extends Serializers.Base {
+        private final SerializedString defaultFieldName;
+
+        WrapperSerializers(SerializedString defaultFieldName) {
+            this.defaultFieldName = defaultFieldName;
+        }
+
+        @Override
+        public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+            if (!SingleFieldWrapper.class.isAssignableFrom(type.getRawClass())) {
+                return null;
+            }
+            return new SingleFieldWrapperSerializer(type, getValueType(type), defaultFieldName, null);
+        }
+    }
+
+    private static class WrapperDeserializers extends Deserializers.Base {
+        private final boolean retainFieldNames;
+
+        WrapperDeserializers(boolean retainFieldNames) {
+            this.retainFieldNames = retainFieldNames;
+        }
+
+        @Override
+        public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config, BeanDescription beanDesc) {
+            if (!SingleFieldWrapper.class.isAssignableFrom(type.getRawClass())) {
+                return null;
+            }
+            return new SingleFieldWrapperDeserializer(type, getValueType(type), retainFieldNames, null);
+        }
+    }
+
+    private static class SingleFieldWrapperSerializer extends StdSerializer<SingleFieldWrapper<?>> implements ContextualSerializer {
+        private final JavaType type;
+        private final JavaType valueType;
+        private final SerializedString defaultFieldName;
+        /**
+         * Serializer for values of final types, {@code null} if it has to be looked up by runtime class
+         */
+        private final JsonSerializer<Object> valueSerializer;
+
+        SingleFieldWrapperSerializer(JavaType type, JavaType valueType, SerializedString defaultFieldName, JsonSerializer<Object> valueSerializer) {
+            super(type);
+            this.type = type;
+            this.valueType = valueType;
+            this.defaultFieldName = defaultFieldName;
+            this.valueSerializer = valueSerializer;
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) throws JsonMappingException {
+            if (valueType == null || !Modifier.isFinal(valueType.getRawClass().getModifiers())) {
+                return this;
+            }
+            JsonSerializer<Object> serializer = prov.findValueSerializer(valueType, property);
+            return new SingleFieldWrapperSerializer(type, valueType, defaultFieldName, serializer);
+        }
+
+        @Override
+        public void serialize(SingleFieldWrapper<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+
+            String fieldName = value.getDataFieldName();
+            if (fieldName == null) {
+                gen.writeFieldName(defaultFieldName); // pre-encoded
+            } else {
+                gen.writeFieldName(fieldName);
+            }
+
+            Object data = value.getData();
+            if (data == null) {
+                provider.defaultSerializeNull(gen);
+            } else if (valueSerializer != null) {
+                valueSerializer.serialize(data, gen, provider);
+            } else {
+                provider.findValueSerializer(data.getClass(), null).serialize(data, gen, provider);
+            }
+
+            gen.writeEndObject();
+        }
+    }
+
+    private static class SingleFieldWrapperDeserializer extends StdDeserializer<SingleFieldWrapper<?>> implements ContextualDeserializer {
+        private final JavaType type;
+        private final JavaType valueType;
+        private final boolean retainFieldNames;
+        private final JsonDeserializer<Object> valueDeserializer;
+
+        SingleFieldWrapperDeserializer(JavaType type, JavaType valueType, boolean retainFieldNames, JsonDeserializer<Object> valueDeserializer) {
+            super(type);
+            this.type = type;
+            this.valueType = valueType;
+            this.retainFieldNames = retainFieldNames;
+            this.valueDeserializer = valueDeserializer;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            JavaType resolved = valueType != null ? valueType : ctxt.constructType(Object.class);
+            JsonDeserializer<Object> deserializer = ctxt.findContextualValueDeserializer(resolved, property);
+            return new SingleFieldWrapperDeserializer(type, resolved, retainFieldNames, deserializer);
+        }
+
+        @Override
+        public SingleFieldWrapper<?> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.getCurrentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            }
+            if (token != JsonToken.FIELD_NAME) {
+                return (SingleFieldWrapper<?>) ctxt.handleUnexpectedToken(handledType(), p);
+            }
+
+            String fieldName = retainFieldNames ? p.getCurrentName() : null;
+
+            Object data;
+            if (p.nextToken() == JsonToken.VALUE_NULL) {
+                data = valueDeserializer.getNullValue(ctxt);
+            } else {
+                data = valueDeserializer.deserialize(p, ctxt);
+            }
+
+            // if not the end of JSON object, it's not a single field JSON and something went wrong
+            if (p.nextToken() != JsonToken.END_OBJECT) {
+                ctxt.reportWrongTokenException(this, JsonToken.END_OBJECT, "single field object expected");
+            }
+
+            return new SingleFieldWrapper<>(fieldName, data);
+        }
+    }
+}
\ No newline at end of file
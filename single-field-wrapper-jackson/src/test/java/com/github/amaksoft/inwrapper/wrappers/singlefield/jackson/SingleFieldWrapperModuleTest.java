@@ -0,0 +1,73 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield.jackson;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Unit-tests for {@link SingleFieldWrapperModule}
+ */
+public class SingleFieldWrapperModuleTest {
+
+    private static final TypeReference<SingleFieldWrapper<String>> WRAPPER_TYPE = new TypeReference<SingleFieldWrapper<String>>() {
+    };
+
+    private static final TypeReference<SingleFieldWrapper<SingleFieldWrapper<List<Integer>>>> NESTED_TYPE =
+            new TypeReference<SingleFieldWrapper<SingleFieldWrapper<List<Integer>>>>() {
+            };
+
+    @Test
+    public void testReadRetainsFieldName() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new SingleFieldWrapperModule());
+
+        SingleFieldWrapper<String> wrapper = mapper.readValue("{\"result\":\"value\"}", WRAPPER_TYPE);
+        assertThat("Field name mismatch", wrapper.getDataFieldName(), is(equalTo("result")));
+        assertThat("Data mismatch", wrapper.getData(), is(equalTo("value")));
+    }
+
+    @Test
+    public void testReadSkipsFieldName() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new SingleFieldWrapperModule("payload", false));
+
+        SingleFieldWrapper<String> wrapper = mapper.readValue("{\"result\":\"value\"}", WRAPPER_TYPE);
+        assertThat(wrapper.getDataFieldName(), is(nullValue()));
+        assertThat("Data mismatch", wrapper.getData(), is(equalTo("value")));
+        assertThat("Default field name expected on write", mapper.writeValueAsString(wrapper), is(equalTo("{\"payload\":\"value\"}")));
+    }
+
+    @Test
+    public void testNestedRoundTrip() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new SingleFieldWrapperModule());
+        String json = "{\"response\":{\"items\":[1,2,3]}}";
+
+        SingleFieldWrapper<SingleFieldWrapper<List<Integer>>> wrapper = mapper.readValue(json, NESTED_TYPE);
+        assertThat("Data mismatch", wrapper.getData().getData(), is(equalTo(Arrays.asList(1, 2, 3))));
+        assertThat("Round trip mismatch", mapper.writerFor(NESTED_TYPE).writeValueAsString(wrapper), is(equalTo(json)));
+    }
+
+    @Test
+    public void testNullData() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new SingleFieldWrapperModule());
+
+        SingleFieldWrapper<String> wrapper = mapper.readValue("{\"data\":null}", WRAPPER_TYPE);
+        assertThat(wrapper.getData(), is(nullValue()));
+        assertThat(mapper.writeValueAsString(wrapper), is(equalTo("{\"data\":null}")));
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void testMultipleFieldsFail() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new SingleFieldWrapperModule());
+        mapper.readValue("{\"data\":\"value\",\"other\":1}", WRAPPER_TYPE);
+    }
+}
\ No newline at end of file
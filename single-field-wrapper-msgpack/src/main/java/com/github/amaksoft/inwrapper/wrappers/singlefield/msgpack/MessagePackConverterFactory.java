@@ -0,0 +1,98 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield.msgpack;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.jackson.JacksonStreamingUnwrapperFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.jackson.SingleFieldWrapperModule;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * {@link Converter.Factory} for MessagePack bodies, backed by Jackson {@link ObjectMapper} with {@link MessagePackFactory}.<br/>
+ * <p>
+ * Add it after {@link InWrapperConverterFactory} so wrapper chains are serialized and deserialized as MessagePack maps.
+ * Register {@link #streamingUnwrapperFactory()} in {@link InWrapperConverterFactory.Builder} to skip envelopes
+ * while reading responses instead of binding them.<br/>
+ * <p>
+ * {@link SingleFieldWrapperModule} is already registered in the mapper created by {@link #create()}.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class MessagePackConverterFactory extends Converter.Factory {
+    private static final MediaType MEDIA_TYPE = MediaType.parse("application/x-msgpack");
+
+    private final ObjectMapper mapper;
+
+    public static MessagePackConverterFactory create() {
+        return create(new ObjectMapper(new MessagePackFactory()).registerModule(new SingleFieldWrapperModule()));
+    }
+
+    /**
+     * @param mapper mapper created with {@link MessagePackFactory}
+     */
+    public static MessagePackConverterFactory create(ObjectMapper mapper) {
+        if (mapper == null) throw new NullPointerException("mapper == null");
+        return new MessagePackConverterFactory(mapper);
+    }
+
+    private MessagePackConverterFactory(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return streaming unwrapper factory decoding MessagePack with the same mapper
+     */
+    public InWrapperConverterFactory.StreamingUnwrapperFactory streamingUnwrapperFactory() {
+        return new JacksonStreamingUnwrapperFactory(mapper);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        return new MessagePackResponseBodyConverter<>(mapper.readerFor(mapper.getTypeFactory().constructType(type)));
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type, Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
+        return new MessagePackRequestBodyConverter<>(mapper.writerFor(mapper.getTypeFactory().constructType(type)));
+    }
+
+    private static class MessagePackResponseBodyConverter<T> implements Converter<ResponseBody, T> {
+        private final ObjectReader reader;
+
+        MessagePackResponseBodyConverter(ObjectReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public T convert(@Nonnull ResponseBody value) throws IOException {
+            try {
+                return reader.readValue(value.byteStream());
+            } finally {
+                value.close();
+            }
+        }
+    }
+
+    private static class MessagePackRequestBodyConverter<T> implements Converter<T, RequestBody> {
+        private final ObjectWriter writer;
+
+        MessagePackRequestBodyConverter(ObjectWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public RequestBody convert(@Nonnull T value) throws IOException {
+            return RequestBody.create(MEDIA_TYPE, writer.writeValueAsBytes(value));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield.msgpack;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.amaksoft.inwrapper.InWrapper;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.PathWrapper;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import com.github.amaksoft.inwrapper.wrappers.singlefield.jackson.SingleFieldWrapperModule;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.POST;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Integrated tests for {@link MessagePackConverterFactory} with {@link InWrapperConverterFactory}
+ * (using actual {@link Retrofit} setup)
+ */
+public class MessagePackIntegratedTest {
+
+    interface ApiService {
+        @POST("/")
+        @InWrapper({SingleFieldWrapper.class, SingleFieldWrapper.class})
+        @SingleFieldWrapper.FieldName({"response", "items"})
+        Call<List<String>> getItems(
+                @Body @InWrapper({SingleFieldWrapper.class}) @SingleFieldWrapper.FieldName({"request"}) List<String> body
+        );
+
+        @POST("/")
+        @InWrapper({PathWrapper.class})
+        @PathWrapper.Path("response.result.items")
+        Call<List<String>> getNestedItems(
+                @Body @InWrapper({SingleFieldWrapper.class}) List<String> body
+        );
+
+        @POST("/")
+        @InWrapper({SingleFieldWrapper.class})
+        Call<List<String>> getFlatItems(
+                @Body @InWrapper({SingleFieldWrapper.class}) List<String> body
+        );
+    }
+
+    private static final ObjectMapper mapper = new ObjectMapper(new MessagePackFactory())
+            .registerModule(new SingleFieldWrapperModule());
+
+    @Rule
+    public final MockWebServer mockWebServer = new MockWebServer();
+
+    private ApiService createService(boolean streaming) {
+        MessagePackConverterFactory messagePackConverterFactory = MessagePackConverterFactory.create(mapper);
+
+        InWrapperConverterFactory.Builder builder = new InWrapperConverterFactory.Builder()
+                .registerPacker(SingleFieldWrapper.class, new SingleFieldWrapper.Packer<>())
+                .registerUnwrapper(SingleFieldWrapper.class, new SingleFieldWrapper.Unwrapper<>());
+        if (streaming) {
+            builder.registerStreamingUnwrapperFactory(messagePackConverterFactory.streamingUnwrapperFactory());
+        }
+
+        Retrofit retrofit = new Retrofit.Builder()
+                .addConverterFactory(builder.build())
+                .addConverterFactory(messagePackConverterFactory)
+                .baseUrl(mockWebServer.url("/"))
+                .build();
+
+        return retrofit.create(ApiService.class);
+    }
+
+    private static Map<String, Object> map(String key, Object value) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(key, value);
+        return map;
+    }
+
+    private void enqueue(Object body) throws IOException {
+        mockWebServer.enqueue(new MockResponse().setBody(new Buffer().write(mapper.writeValueAsBytes(body))));
+    }
+
+    @Test
+    public void testRequestPacked() throws IOException, InterruptedException {
+        enqueue(map("response", map("items", Collections.emptyList())));
+
+        List<String> requestValue = Arrays.asList("a", "b");
+        Response<List<String>> response = createService(true).getItems(requestValue).execute();
+
+        assertThat("Request failed", response.isSuccessful());
+
+        byte[] resultRequest = mockWebServer.takeRequest().getBody().readByteArray();
+        assertThat("Request value mismatch", mapper.readValue(resultRequest, Map.class),
+                is(equalTo((Map) map("request", requestValue))));
+    }
+
+    @Test
+    public void testStreamingUnwrapSkipsSiblings() throws IOException {
+        Map<String, Object> inner = map("count", 2);
+        inner.put("items", Arrays.asList("x", "y"));
+        Map<String, Object> outer = map("meta", map("server", Arrays.asList(1, 2, 3)));
+        outer.put("response", inner);
+        outer.put("trailer", "ignored");
+        enqueue(outer);
+
+        Response<List<String>> response = createService(true).getItems(Collections.<String>emptyList()).execute();
+
+        assertThat("Response value mismatch", response.body(), is(equalTo(Arrays.asList("x", "y"))));
+    }
+
+    @Test
+    public void testStreamingUnwrapPath() throws IOException {
+        Map<String, Object> result = map("count", 2);
+        result.put("items", Arrays.asList("x", "y"));
+        Map<String, Object> response = map("status", "ok");
+        response.put("result", result);
+        enqueue(map("response", response));
+
+        Response<List<String>> httpResponse = createService(true).getNestedItems(Collections.<String>emptyList()).execute();
+
+        assertThat("Response value mismatch", httpResponse.body(), is(equalTo(Arrays.asList("x", "y"))));
+    }
+
+    @Test
+    public void testBoundUnwrap() throws IOException {
+        enqueue(map("items", Arrays.asList("x", "y")));
+
+        Response<List<String>> response = createService(false).getFlatItems(Collections.<String>emptyList()).execute();
+
+        assertThat("Response value mismatch", response.body(), is(equalTo(Arrays.asList("x", "y"))));
+    }
+
+    @Test
+    public void testStreamingUnwrapNullWrapper() throws IOException {
+        enqueue(map("response", null));
+
+        Response<List<String>> response = createService(true).getItems(Collections.<String>emptyList()).execute();
+
+        assertThat("Response value mismatch", response.body(), is(equalTo((List<String>) null)));
+    }
+}
\ No newline at end of file
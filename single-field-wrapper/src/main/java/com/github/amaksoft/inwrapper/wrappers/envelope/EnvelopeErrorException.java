@@ -0,0 +1,36 @@
+package com.github.amaksoft.inwrapper.wrappers.envelope;
+
+import java.io.IOException;
+
+/**
+ * Thrown by converters of {@link ResultEnvelope} responses containing an error.
+ * Carries the decoded error object, and Retrofit passes it to the caller as any other conversion failure.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EnvelopeErrorException extends IOException {
+    private final Object error;
+
+    public EnvelopeErrorException(Object error) {
+        super("Response envelope contains an error" + (error != null ? " of type " + error.getClass().getName() : ""));
+        this.error = error;
+    }
+
+    /**
+     * @return decoded error object
+     */
+    public Object getError() {
+        return error;
+    }
+
+    /**
+     * Typed getter for decoded error object
+     *
+     * @param errorClass expected error class
+     * @param <E>        expected error type
+     * @return decoded error object
+     * @throws ClassCastException if the error is not an instance of {@code errorClass}
+     */
+    public <E> E getError(Class<E> errorClass) {
+        return errorClass.cast(error);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.github.amaksoft.inwrapper.wrappers.envelope;
+
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * An immutable generic body object for requests and responses, where actual data is one of the fields of JSON object,
+ * e.g. {@code {"status": "ok", "data": {...}, "meta": {...}}}
+ *
+ * @see EnvelopeWrapperTypeAdapterFactory for serialization/deserialization mechanism
+ */
+@SuppressWarnings("WeakerAccess")
+public class EnvelopeWrapper<T> {
+    private final T data;
+
+    /**
+     * Creates an instance with given data
+     *
+     * @param data data object
+     */
+    public EnvelopeWrapper(T data) {
+        this.data = data;
+    }
+
+    /**
+     * Getter method for data
+     *
+     * @return data object, {@code null} if the envelope had no data field
+     */
+    public T getData() {
+        return data;
+    }
+
+    /**
+     * An unwrapper for this class. Register using {@link InWrapperConverterFactory.Builder#registerUnwrapper(Class, InWrapperConverterFactory.ResponseUnwrapper)}
+     *
+     * @param <T> wrapped data type
+     */
+    public static class Unwrapper<T> implements InWrapperConverterFactory.ResponseUnwrapper<EnvelopeWrapper<T>, T> {
+        @Override
+        public T unwrap(EnvelopeWrapper<T> wrapper, int depth, Annotation[] annotations) {
+            return wrapper.getData();
+        }
+    }
+
+    /**
+     * A packer for this class. Register using {@link InWrapperConverterFactory.Builder#registerPacker(Class, InWrapperConverterFactory.RequestPacker)}
+     *
+     * @param <T> wrapped data type
+     */
+    public static class Packer<T> implements InWrapperConverterFactory.RequestPacker<EnvelopeWrapper<T>, T> {
+        @Override
+        public EnvelopeWrapper<T> pack(T data, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            return new EnvelopeWrapper<>(data);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.amaksoft.inwrapper.wrappers.envelope;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.internal.$Gson$Types;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link TypeAdapterFactory} for generic {@link EnvelopeWrapper} class.<br/>
+ * <p>
+ * During deserialization reads JSON object in a single pass, extracting the field named {@link #dataFieldName}
+ * into {@link EnvelopeWrapper#data} and skipping all the other fields without deserializing them. <br/>
+ * <p>
+ * During serialization creates a JSON object with {@link #constantFields} followed by the data field.
+ * Constant fields are serialized once, when the type adapter is created.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class EnvelopeWrapperTypeAdapterFactory implements TypeAdapterFactory {
+    private static final String DEFAULT_FIELD_NAME = "data";
+
+    private final String dataFieldName;
+    private final Map<String, ?> constantFields;
+
+    /**
+     * Creates factory for envelopes with data in {@code dataFieldName} field
+     *
+     * @param dataFieldName  JSON field name of actual data, falls back to {@link #DEFAULT_FIELD_NAME} if not specified
+     * @param constantFields fields to be written to every serialized envelope along with the data, e.g. API version
+     */
+    public EnvelopeWrapperTypeAdapterFactory(String dataFieldName, Map<String, ?> constantFields) {
+        if (dataFieldName == null || dataFieldName.isEmpty()) {
+            this.dataFieldName = DEFAULT_FIELD_NAME;
+        } else {
+            this.dataFieldName = dataFieldName;
+        }
+        this.constantFields = constantFields != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(constantFields))
+                : Collections.<String, Object>emptyMap();
+    }
+
+    public EnvelopeWrapperTypeAdapterFactory(String dataFieldName) {
+        this(dataFieldName, null);
+    }
+
+    public EnvelopeWrapperTypeAdapterFactory() {
+        this(null, null);
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        Class<? super T> rawType = typeToken.getRawType();
+        if (!EnvelopeWrapper.class.isAssignableFrom(rawType)) {
+            return null;
+        }
+
+        TypeAdapter<?> valueAdapter = gson.getAdapter(TypeToken.get(getValueType(typeToken.getType(), rawType)));
+
+        Map<String, JsonElement> serializedConstants = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> field : constantFields.entrySet()) {
+            serializedConstants.put(field.getKey(), gson.toJsonTree(field.getValue()));
+        }
+
+        //noinspection unchecked
+        return new EnvelopeTypeAdapter(valueAdapter, gson.getAdapter(JsonElement.class), dataFieldName, serializedConstants).nullSafe();
+    }
+
+    /**
+     * Resolves {@link EnvelopeWrapper} type parameter in the context of given type
+     */
+    static Type getValueType(Type context, Class<?> contextRawType) {
+        TypeVariable<?> dataTypeVariable = EnvelopeWrapper.class.getTypeParameters()[0];
+        Type valueType = $Gson$Types.resolve(context, contextRawType, dataTypeVariable);
+        return valueType instanceof TypeVariable ? Object.class : valueType;
+    }
+
+    private static class EnvelopeTypeAdapter<V> extends TypeAdapter<EnvelopeWrapper<V>> {
+        private final TypeAdapter<V> valueTypeAdapter;
+        private final TypeAdapter<JsonElement> elementTypeAdapter;
+        private final String dataFieldName;
+        private final Map<String, JsonElement> constantFields;
+
+        EnvelopeTypeAdapter(TypeAdapter<V> valueTypeAdapter, TypeAdapter<JsonElement> elementTypeAdapter, String dataFieldName,
+                            Map<String, JsonElement> constantFields) {
+            this.valueTypeAdapter = valueTypeAdapter;
+            this.elementTypeAdapter = elementTypeAdapter;
+            this.dataFieldName = dataFieldName;
+            this.constantFields = constantFields;
+        }
+
+        @Override
+        public void write(JsonWriter out, EnvelopeWrapper<V> value) throws IOException {
+            out.beginObject();
+
+            for (Map.Entry<String, JsonElement> field : constantFields.entrySet()) {
+                out.name(field.getKey());
+                elementTypeAdapter.write(out, field.getValue());
+            }
+
+            out.name(dataFieldName);
+            valueTypeAdapter.write(out, value.getData());
+
+            out.endObject();
+        }
+
+        @Override
+        public EnvelopeWrapper<V> read(JsonReader in) throws IOException {
+            in.beginObject();
+
+            V data = null;
+            while (in.hasNext()) {
+                if (dataFieldName.equals(in.nextName())) {
+                    data = valueTypeAdapter.read(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+
+            in.endObject();
+
+            return new EnvelopeWrapper<>(data);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.amaksoft.inwrapper.wrappers.envelope;
+
+/**
+ * Marker wrapper class for responses carrying either data or an error in the same JSON object,
+ * e.g. {@code {"data": {...}}} or {@code {"error": {"code": 42, "message": "..."}}}.<br/>
+ * <p>
+ * Put it in {@link com.github.amaksoft.inwrapper.InWrapper} chain and register {@link ResultEnvelopeStreamingUnwrapperFactory},
+ * which decodes only the branch present in the response and throws {@link EnvelopeErrorException} for errors.
+ *
+ * @param <T> wrapped data type
+ */
+@SuppressWarnings("unused")
+public final class ResultEnvelope<T> {
+    private ResultEnvelope() {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.github.amaksoft.inwrapper.wrappers.envelope;
+
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * {@link InWrapperConverterFactory.StreamingUnwrapperFactory} for {@link ResultEnvelope} responses.<br/>
+ * <p>
+ * Reads the envelope object in a single pass. The data field is decoded with the adapter of actual data type,
+ * the error field with the adapter of error type passed to constructor, every other field is skipped.
+ * Whichever of them is present in the response is the only one decoded, there's no intermediate tree or second parse.<br/>
+ * <p>
+ * If the envelope has a non-null error, {@link EnvelopeErrorException} carrying the decoded error is thrown,
+ * otherwise the data is returned ({@code null} if the envelope has no data field).
+ */
+@SuppressWarnings("WeakerAccess")
+public class ResultEnvelopeStreamingUnwrapperFactory implements InWrapperConverterFactory.StreamingUnwrapperFactory {
+    private static final String DEFAULT_DATA_FIELD_NAME = "data";
+    private static final String DEFAULT_ERROR_FIELD_NAME = "error";
+
+    private final Gson gson;
+    private final String dataFieldName;
+    private final String errorFieldName;
+    private final TypeAdapter<?> errorAdapter;
+
+    /**
+     * @param gson           {@link Gson} instance to get type adapters from
+     * @param dataFieldName  JSON field name of actual data, falls back to {@link #DEFAULT_DATA_FIELD_NAME} if not specified
+     * @param errorFieldName JSON field name of error, falls back to {@link #DEFAULT_ERROR_FIELD_NAME} if not specified
+     * @param errorType      type to decode errors to
+     */
+    public ResultEnvelopeStreamingUnwrapperFactory(Gson gson, String dataFieldName, String errorFieldName, Type errorType) {
+        this.gson = gson;
+        this.dataFieldName = dataFieldName == null || dataFieldName.isEmpty() ? DEFAULT_DATA_FIELD_NAME : dataFieldName;
+        this.errorFieldName = errorFieldName == null || errorFieldName.isEmpty() ? DEFAULT_ERROR_FIELD_NAME : errorFieldName;
+        this.errorAdapter = gson.getAdapter(TypeToken.get(errorType));
+    }
+
+    public ResultEnvelopeStreamingUnwrapperFactory(Gson gson, Type errorType) {
+        this(gson, null, null, errorType);
+    }
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> create(Type dataType, Class[] wrapperClasses, Annotation[] annotations, Retrofit retrofit) {
+        if (wrapperClasses.length != 1 || wrapperClasses[0] != ResultEnvelope.class) {
+            return null;
+        }
+        return new ResultEnvelopeConverter<>(gson, gson.getAdapter(TypeToken.get(dataType)), errorAdapter, dataFieldName, errorFieldName);
+    }
+
+    private static class ResultEnvelopeConverter<V> implements Converter<ResponseBody, V> {
+        private final Gson gson;
+        private final TypeAdapter<V> dataAdapter;
+        private final TypeAdapter<?> errorAdapter;
+        private final String dataFieldName;
+        private final String errorFieldName;
+
+        ResultEnvelopeConverter(Gson gson, TypeAdapter<V> dataAdapter, TypeAdapter<?> errorAdapter, String dataFieldName, String errorFieldName) {
+            this.gson = gson;
+            this.dataAdapter = dataAdapter;
+            this.errorAdapter = errorAdapter;
+            this.dataFieldName = dataFieldName;
+            this.errorFieldName = errorFieldName;
+        }
+
+        @Override
+        public V convert(@Nonnull ResponseBody body) throws IOException {
+            JsonReader in = gson.newJsonReader(body.charStream());
+            try {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+
+                V data = null;
+                Object error = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (dataFieldName.equals(name)) {
+                        data = dataAdapter.read(in);
+                    } else if (errorFieldName.equals(name)) {
+                        error = errorAdapter.read(in);
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+
+                if (error != null) {
+                    throw new EnvelopeErrorException(error);
+                }
+                return data;
+            } finally {
+                body.close();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+
+/**
+ * Resolves field names of single field wrapper chains and {@link PathWrapper}, shared by converters and packers
+ * of such chains so they all descend into the same fields.
+ */
+public final class ChainFieldNames {
+    private ChainFieldNames() {
+    }
+
+    /**
+     * Resolves field names to descend into for a single {@link PathWrapper} or any number of {@link SingleFieldWrapper}s
+     *
+     * @param wrapperClasses wrapper classes chain
+     * @param annotations    interface method annotations
+     * @return field names for each level, from the outermost object, {@code null} elements stand for "first field".
+     * {@code null} if the chain is neither of them
+     * @throws IllegalArgumentException if the chain is {@link PathWrapper} with missing or malformed {@link PathWrapper.Path}
+     */
+    @Nullable
+    public static String[] resolve(Class[] wrapperClasses, Annotation[] annotations) {
+        if (PathWrapper.isPathChain(wrapperClasses)) {
+            return PathWrapper.findPath(annotations);
+        }
+        if (isSingleFieldChain(wrapperClasses)) {
+            return findFieldNames(annotations, wrapperClasses.length);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether every wrapper of the chain is a {@link SingleFieldWrapper}
+     *
+     * @param wrapperClasses wrapper classes chain
+     * @return {@code true} if field names of the chain are given by {@link SingleFieldWrapper.FieldName} annotation
+     */
+    public static boolean isSingleFieldChain(Class[] wrapperClasses) {
+        for (Class wrapperClass : wrapperClasses) {
+            //noinspection unchecked
+            if (!SingleFieldWrapper.class.isAssignableFrom(wrapperClass)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads field names for each wrapper level from {@link SingleFieldWrapper.FieldName} annotation
+     *
+     * @param annotations interface method or parameter annotations
+     * @param depth       wrapper chain length
+     * @return field names array of {@code depth} length, {@code null} elements stand for "first field" (or default name)
+     */
+    public static String[] findFieldNames(Annotation[] annotations, int depth) {
+        String[] fieldNames = new String[depth];
+        SingleFieldWrapper.FieldName annotation = findAnnotation(annotations);
+        if (annotation != null) {
+            String[] names = annotation.value();
+            System.arraycopy(names, 0, fieldNames, 0, Math.min(names.length, depth));
+        }
+        return fieldNames;
+    }
+
+    /**
+     * Reads field name of a single wrapper level from {@link SingleFieldWrapper.FieldName} annotation
+     *
+     * @param annotations interface method or parameter annotations
+     * @param depth       wrapper position in the chain
+     * @return field name for the wrapper at {@code depth} or {@code null} for "first field" (or default name),
+     * if there's no annotation or it has less names than wrappers in the chain
+     */
+    @Nullable
+    public static String findFieldName(Annotation[] annotations, int depth) {
+        SingleFieldWrapper.FieldName annotation = findAnnotation(annotations);
+        if (annotation == null) {
+            return null;
+        }
+        String[] names = annotation.value();
+        return depth < names.length ? names[depth] : null;
+    }
+
+    @Nullable
+    private static SingleFieldWrapper.FieldName findAnnotation(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof SingleFieldWrapper.FieldName) {
+                return (SingleFieldWrapper.FieldName) annotation;
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
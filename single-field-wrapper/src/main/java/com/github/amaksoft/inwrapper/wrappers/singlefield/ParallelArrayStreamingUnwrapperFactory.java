@@ -0,0 +1,452 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@link InWrapperConverterFactory.StreamingUnwrapperFactory} decoding large wrapped JSON arrays on several cores.<br/>
+ * <p>
+ * Supports the same wrapper chains as {@link SingleFieldStreamingUnwrapperFactory} with {@link List} (or {@link Collection})
+ * of actual data type, and returns {@code null} for the others, so it is opted into by registering it before
+ * the regular streaming factory. The body is buffered, then a structural byte scan descends to the wrapped array
+ * and finds byte ranges of its elements without decoding them. Ranges are split into chunks decoded in parallel
+ * on {@link ForkJoinPool} by the {@link TypeAdapter} of element type, results are assembled in array order.
+ * Arrays of no more than one chunk are decoded on the calling thread.<br/>
+ * <p>
+ * The scan relies on the body being UTF-8 encoded, as JSON is, since structural characters never occur inside
+ * multi-byte sequences then. Bodies declaring another charset in their content type are transcoded to UTF-8 first.
+ * Whole body has to fit in a byte array, so bodies over 2GB are not supported.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ParallelArrayStreamingUnwrapperFactory implements InWrapperConverterFactory.StreamingUnwrapperFactory {
+    private static final int DEFAULT_MIN_CHUNK_SIZE = 64;
+    // keeps workers busy when elements take uneven time to decode
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final Gson gson;
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+
+    /**
+     * @param gson         {@link Gson} instance to get element type adapters from
+     * @param pool         pool to decode chunks on
+     * @param minChunkSize minimum number of elements decoded by a single task
+     */
+    public ParallelArrayStreamingUnwrapperFactory(Gson gson, ForkJoinPool pool, int minChunkSize) {
+        if (minChunkSize < 1) throw new IllegalArgumentException("minChunkSize < 1");
+        this.gson = gson;
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    public ParallelArrayStreamingUnwrapperFactory(Gson gson, ForkJoinPool pool) {
+        this(gson, pool, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates factory decoding on a {@link ForkJoinPool} shared by all factories created this way.
+     * The pool is created on first use with parallelism equal to the number of available processors,
+     * its workers are daemon threads
+     *
+     * @param gson {@link Gson} instance to get element type adapters from
+     */
+    public ParallelArrayStreamingUnwrapperFactory(Gson gson) {
+        this(gson, SharedPool.INSTANCE);
+    }
+
+    /**
+     * Holds the pool shared by factories created without one, initialized on first access
+     */
+    private static class SharedPool {
+        static final ForkJoinPool INSTANCE = new ForkJoinPool();
+    }
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> create(Type dataType, Class[] wrapperClasses, Annotation[] annotations, Retrofit retrofit) {
+        if (!(dataType instanceof ParameterizedType)) {
+            return null;
+        }
+        Type rawType = ((ParameterizedType) dataType).getRawType();
+        if (rawType != List.class && rawType != Collection.class && rawType != ArrayList.class) {
+            return null;
+        }
+
+        String[] fieldNames = ChainFieldNames.resolve(wrapperClasses, annotations);
+        if (fieldNames == null) {
+            return null;
+        }
+
+        Type elementType = ((ParameterizedType) dataType).getActualTypeArguments()[0];
+        return new ParallelArrayConverter<>(this, gson.getAdapter(TypeToken.get(elementType)), fieldNames);
+    }
+
+    private static class ParallelArrayConverter<E> implements Converter<ResponseBody, List<E>> {
+        private final ParallelArrayStreamingUnwrapperFactory factory;
+        private final TypeAdapter<E> elementAdapter;
+        private final String[] fieldNames;
+
+        ParallelArrayConverter(ParallelArrayStreamingUnwrapperFactory factory, TypeAdapter<E> elementAdapter, String[] fieldNames) {
+            this.factory = factory;
+            this.elementAdapter = elementAdapter;
+            this.fieldNames = fieldNames;
+        }
+
+        @Override
+        public List<E> convert(@Nonnull ResponseBody body) throws IOException {
+            byte[] bytes;
+            Charset charset;
+            try {
+                MediaType contentType = body.contentType();
+                charset = contentType != null ? contentType.charset(StructuralScanner.UTF_8) : StructuralScanner.UTF_8;
+                bytes = body.bytes();
+            } finally {
+                body.close();
+            }
+            if (!StructuralScanner.UTF_8.equals(charset)) {
+                bytes = new String(bytes, charset).getBytes(StructuralScanner.UTF_8);
+            }
+
+            StructuralScanner scanner = new StructuralScanner(bytes);
+            int levels = scanner.descend(fieldNames);
+            ElementRanges ranges = levels == fieldNames.length ? scanner.scanArray() : null;
+            scanner.ascend(levels);
+            scanner.checkFullyConsumed();
+            if (ranges == null) {
+                return null;
+            }
+
+            Object[] elements = new Object[ranges.count];
+            int chunkSize = Math.max(factory.minChunkSize, ranges.count / (factory.pool.getParallelism() * CHUNKS_PER_WORKER));
+            DecodeTask<E> task = new DecodeTask<>(factory.gson, elementAdapter, bytes, ranges, elements, 0, ranges.count, chunkSize);
+            if (ranges.count <= chunkSize) {
+                task.decode();
+            } else {
+                factory.pool.invoke(task);
+            }
+            //noinspection unchecked (elements are decoded by adapter of element type)
+            return new ArrayList<>((List<E>) Arrays.asList(elements));
+        }
+    }
+
+    /**
+     * Decodes a range of array elements, splitting it in halves until it is no longer than the chunk size
+     */
+    private static class DecodeTask<E> extends RecursiveAction {
+        private static final byte[] ARRAY_START = {'['};
+        private static final byte[] ARRAY_END = {']'};
+
+        private final Gson gson;
+        private final TypeAdapter<E> elementAdapter;
+        private final byte[] bytes;
+        private final ElementRanges ranges;
+        private final Object[] elements;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        DecodeTask(Gson gson, TypeAdapter<E> elementAdapter, byte[] bytes, ElementRanges ranges, Object[] elements, int from, int to, int chunkSize) {
+            this.gson = gson;
+            this.elementAdapter = elementAdapter;
+            this.bytes = bytes;
+            this.ranges = ranges;
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                decode();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecodeTask<>(gson, elementAdapter, bytes, ranges, elements, from, middle, chunkSize),
+                    new DecodeTask<>(gson, elementAdapter, bytes, ranges, elements, middle, to, chunkSize));
+        }
+
+        /**
+         * Decodes the chunk with a single reader: elements are read as an array, enclosing their byte range in brackets
+         */
+        void decode() {
+            if (from == to) {
+                return;
+            }
+            int start = ranges.starts[from];
+            int end = ranges.ends[to - 1];
+            SequenceInputStream chunk = new SequenceInputStream(
+                    new SequenceInputStream(new ByteArrayInputStream(ARRAY_START), new ByteArrayInputStream(bytes, start, end - start)),
+                    new ByteArrayInputStream(ARRAY_END));
+            JsonReader in = gson.newJsonReader(new InputStreamReader(chunk, StructuralScanner.UTF_8));
+            try {
+                in.beginArray();
+                for (int i = from; i < to; i++) {
+                    elements[i] = elementAdapter.read(in);
+                }
+                in.endArray();
+            } catch (MalformedJsonException e) {
+                throw new JsonSyntaxException(e);
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Byte offsets of array elements, end offsets are exclusive
+     */
+    private static class ElementRanges {
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count;
+
+        void add(int start, int end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+    }
+
+    /**
+     * Walks JSON structure of a UTF-8 encoded body without decoding values, only wrapper field names are decoded
+     */
+    private static class StructuralScanner {
+        static final Charset UTF_8 = Charset.forName("UTF-8");
+
+        private final byte[] bytes;
+        private int pos;
+
+        StructuralScanner(byte[] bytes) {
+            this.bytes = bytes;
+            // skip byte order mark
+            if (bytes.length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+                pos = 3;
+            }
+        }
+
+        /**
+         * @return number of entered wrapper objects, less than {@code fieldNames.length} if one of the wrappers is {@code null}
+         * @see SingleFieldStreamingUnwrapperFactory#descend(JsonReader, String[])
+         */
+        int descend(String[] fieldNames) throws IOException {
+            for (int depth = 0; depth < fieldNames.length; depth++) {
+                if (consumeNull()) {
+                    return depth;
+                }
+                expect('{');
+                String fieldName = fieldNames[depth];
+                if (!seekField(fieldName)) {
+                    throw new JsonSyntaxException("Wrapped field " + (fieldName != null ? "\"" + fieldName + "\" " : "")
+                            + "not found at offset " + pos);
+                }
+            }
+            return fieldNames.length;
+        }
+
+        private boolean seekField(String fieldName) throws IOException {
+            if (peek() == '}') {
+                return false;
+            }
+            do {
+                String name = readString();
+                expect(':');
+                if (fieldName == null || fieldName.equals(name)) {
+                    return true;
+                }
+                skipValue();
+            } while (consume(','));
+            return false;
+        }
+
+        /**
+         * Skips remaining fields of entered wrapper objects and closes them
+         */
+        void ascend(int levels) throws IOException {
+            for (int i = 0; i < levels; i++) {
+                while (consume(',')) {
+                    skipString();
+                    expect(':');
+                    skipValue();
+                }
+                expect('}');
+            }
+        }
+
+        /**
+         * Makes sure there is nothing but whitespace after the outermost wrapper object
+         *
+         * @see SingleFieldStreamingUnwrapperFactory#checkFullyConsumed(JsonReader)
+         */
+        void checkFullyConsumed() {
+            if (peek() != -1) {
+                throw new JsonIOException("JSON document was not fully consumed.");
+            }
+        }
+
+        /**
+         * @return element ranges of the array or {@code null} if the value is {@code null}
+         */
+        @Nullable
+        ElementRanges scanArray() throws IOException {
+            if (consumeNull()) {
+                return null;
+            }
+            expect('[');
+            ElementRanges ranges = new ElementRanges();
+            if (peek() != ']') {
+                do {
+                    int start = pos;
+                    skipValue();
+                    ranges.add(start, pos);
+                } while (consume(','));
+            }
+            expect(']');
+            return ranges;
+        }
+
+        private int peek() {
+            while (pos < bytes.length) {
+                byte b = bytes[pos];
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return b;
+                }
+                pos++;
+            }
+            return -1;
+        }
+
+        private boolean consume(char c) {
+            if (peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) throws MalformedJsonException {
+            if (!consume(c)) {
+                throw syntaxError("Expected '" + c + "'");
+            }
+        }
+
+        private boolean consumeNull() {
+            if (peek() == 'n' && pos + 4 <= bytes.length
+                    && bytes[pos + 1] == 'u' && bytes[pos + 2] == 'l' && bytes[pos + 3] == 'l') {
+                pos += 4;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipValue() throws MalformedJsonException {
+            int c = peek();
+            if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                pos++;
+                int depth = 1;
+                while (depth > 0) {
+                    if (pos == bytes.length) {
+                        throw syntaxError("Unterminated " + (c == '{' ? "object" : "array"));
+                    }
+                    byte b = bytes[pos];
+                    if (b == '"') {
+                        skipString();
+                        continue;
+                    }
+                    if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        depth--;
+                    }
+                    pos++;
+                }
+            } else {
+                // number or literal, elements decoding validates it
+                int start = pos;
+                while (pos < bytes.length) {
+                    byte b = bytes[pos];
+                    if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                        break;
+                    }
+                    pos++;
+                }
+                if (pos == start) {
+                    throw syntaxError("Expected value");
+                }
+            }
+        }
+
+        /**
+         * @return whether the string has escape sequences
+         */
+        private boolean skipString() throws MalformedJsonException {
+            if (peek() != '"') {
+                throw syntaxError("Expected string");
+            }
+            pos++;
+            boolean escaped = false;
+            while (pos < bytes.length) {
+                byte b = bytes[pos++];
+                if (b == '\\') {
+                    escaped = true;
+                    pos++;
+                } else if (b == '"') {
+                    return escaped;
+                }
+            }
+            throw syntaxError("Unterminated string");
+        }
+
+        private String readString() throws IOException {
+            peek();
+            int start = pos;
+            boolean escaped = skipString();
+            if (!escaped) {
+                return new String(bytes, start + 1, pos - start - 2, UTF_8);
+            }
+            // field names with escape sequences are rare, let JsonReader unescape them
+            JsonReader reader = new JsonReader(new StringReader(new String(bytes, start, pos - start, UTF_8)));
+            reader.setLenient(true);
+            return reader.nextString();
+        }
+
+        private MalformedJsonException syntaxError(String message) {
+            return new MalformedJsonException(message + " at offset " + pos);
+        }
+    }
+}
\ No newline at end of file
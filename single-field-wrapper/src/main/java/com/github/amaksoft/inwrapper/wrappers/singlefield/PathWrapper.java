@@ -0,0 +1,79 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.github.amaksoft.inwrapper.InWrapper;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marker wrapper class for data nested in several levels of objects, declared by a dot separated path
+ * instead of a chain of {@link SingleFieldWrapper}s.<br/>
+ * <p>
+ * Annotate {@link retrofit2.Retrofit} interface method with {@code @InWrapper(PathWrapper.class)} and {@link Path},
+ * e.g. {@code @PathWrapper.Path("response.result.items")}, and register a streaming unwrapper factory supporting it
+ * ({@link SingleFieldStreamingUnwrapperFactory} or its Jackson counterpart). The body is read once: the reader descends
+ * along the path skipping all the other fields, and only the value at the end of the path is decoded.
+ * The path is parsed once, when the converter is created.<br/>
+ * <p>
+ * There is no {@link InWrapperConverterFactory.ResponseUnwrapper} for this class, it can only be unwrapped by streaming.
+ *
+ * @param <T> wrapped data type
+ */
+@SuppressWarnings("unused")
+public final class PathWrapper<T> {
+    private PathWrapper() {
+    }
+
+    /**
+     * Path to wrapped data for methods annotated with {@link InWrapper} of {@link PathWrapper}
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface Path {
+        /**
+         * @return field names separated with dots, from the outermost object to the wrapped data
+         */
+        String value();
+    }
+
+    /**
+     * Checks whether the chain consists of {@link PathWrapper} only
+     *
+     * @param wrapperClasses wrapper classes chain
+     * @return {@code true} if field names should be taken from {@link Path} annotation
+     */
+    public static boolean isPathChain(Class[] wrapperClasses) {
+        return wrapperClasses.length == 1 && wrapperClasses[0] == PathWrapper.class;
+    }
+
+    /**
+     * Reads field names from {@link Path} annotation
+     *
+     * @param annotations interface method annotations
+     * @return field names for each level, from the outermost object
+     * @throws IllegalArgumentException if there is no {@link Path} annotation or the path is malformed
+     */
+    public static String[] findPath(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Path) {
+                return parse(((Path) annotation).value());
+            }
+        }
+        throw new IllegalArgumentException(PathWrapper.class.getSimpleName() + " requires "
+                + Path.class.getName().replace('$', '.') + " annotation");
+    }
+
+    static String[] parse(String path) {
+        String[] fieldNames = path.split("\\.", -1);
+        for (String fieldName : fieldNames) {
+            if (fieldName.isEmpty()) {
+                throw new IllegalArgumentException("Malformed wrapped data path \"" + path + "\"");
+            }
+        }
+        return fieldNames;
+    }
+}
\ No newline at end of file
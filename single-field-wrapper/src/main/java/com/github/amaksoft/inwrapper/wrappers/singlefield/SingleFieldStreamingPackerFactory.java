@@ -0,0 +1,130 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+
+/**
+ * {@link InWrapperConverterFactory.StreamingPackerFactory} for chains of {@link SingleFieldWrapper}.<br/>
+ * <p>
+ * Instead of creating wrapper objects, writes wrapper JSON objects as pre-encoded prefix and suffix bytes
+ * around the actual data, which is serialized by its {@link TypeAdapter} straight into request body sink.<br/>
+ * <p>
+ * Field names for each wrapper level are taken from {@link SingleFieldWrapper.FieldName} annotation of the parameter,
+ * levels without a name are written with {@link #defaultFieldName}, the same way {@link SingleFieldWrapperTypeAdapterFactory} does it.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SingleFieldStreamingPackerFactory implements InWrapperConverterFactory.StreamingPackerFactory {
+    private static final String DEFAULT_FIELD_NAME = "data";
+    private static final MediaType MEDIA_TYPE = MediaType.parse("application/json; charset=UTF-8");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Gson gson;
+    private final String defaultFieldName;
+
+    public SingleFieldStreamingPackerFactory(Gson gson, String defaultFieldName) {
+        this.gson = gson;
+        if (defaultFieldName == null || defaultFieldName.isEmpty()) {
+            this.defaultFieldName = DEFAULT_FIELD_NAME;
+        } else {
+            this.defaultFieldName = defaultFieldName;
+        }
+    }
+
+    public SingleFieldStreamingPackerFactory(Gson gson) {
+        this(gson, null);
+    }
+
+    @Nullable
+    @Override
+    public Converter<?, RequestBody> create(Type dataType, Class[] wrapperClasses, Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
+        if (!ChainFieldNames.isSingleFieldChain(wrapperClasses)) {
+            return null;
+        }
+
+        String[] fieldNames = ChainFieldNames.findFieldNames(parameterAnnotations, wrapperClasses.length);
+
+        StringBuilder prefix = new StringBuilder();
+        StringBuilder suffix = new StringBuilder();
+        for (String fieldName : fieldNames) {
+            // Gson takes care of escaping
+            prefix.append('{').append(gson.toJson(fieldName != null ? fieldName : defaultFieldName)).append(':');
+            suffix.append('}');
+        }
+
+        TypeAdapter<?> valueAdapter = gson.getAdapter(TypeToken.get(dataType));
+        return new StreamingPackConverter<>(gson, valueAdapter, prefix.toString().getBytes(UTF_8), suffix.toString().getBytes(UTF_8));
+    }
+
+    private static class StreamingPackConverter<V> implements Converter<V, RequestBody> {
+        private final Gson gson;
+        private final TypeAdapter<V> valueAdapter;
+        private final byte[] prefix;
+        private final byte[] suffix;
+
+        StreamingPackConverter(Gson gson, TypeAdapter<V> valueAdapter, byte[] prefix, byte[] suffix) {
+            this.gson = gson;
+            this.valueAdapter = valueAdapter;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public RequestBody convert(@Nonnull V value) throws IOException {
+            return new StreamingRequestBody<>(gson, valueAdapter, prefix, suffix, value);
+        }
+    }
+
+    /**
+     * {@link RequestBody} serializing its value on {@link #writeTo(BufferedSink)}, without buffering the whole body
+     */
+    private static class StreamingRequestBody<V> extends RequestBody {
+        private final Gson gson;
+        private final TypeAdapter<V> valueAdapter;
+        private final byte[] prefix;
+        private final byte[] suffix;
+        private final V value;
+
+        StreamingRequestBody(Gson gson, TypeAdapter<V> valueAdapter, byte[] prefix, byte[] suffix, V value) {
+            this.gson = gson;
+            this.valueAdapter = valueAdapter;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.value = value;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return MEDIA_TYPE;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            sink.write(prefix);
+
+            Writer writer = new OutputStreamWriter(sink.outputStream(), UTF_8);
+            JsonWriter jsonWriter = gson.newJsonWriter(writer);
+            jsonWriter.setLenient(true); // value is not a top level document, so it may be a primitive
+            valueAdapter.write(jsonWriter, value);
+            jsonWriter.flush();
+
+            sink.write(suffix);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,287 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.github.amaksoft.inwrapper.CloseableIterator;
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link InWrapperConverterFactory.StreamingUnwrapperFactory} for chains of {@link SingleFieldWrapper}.<br/>
+ * <p>
+ * Instead of deserializing every wrapper level, positions {@link JsonReader} directly at the wrapped value
+ * and passes only that sub-tree to the {@link TypeAdapter} of actual data type. Sibling fields on every level are skipped.<br/>
+ * <p>
+ * Field to descend into on each level is taken from {@link SingleFieldWrapper.FieldName} annotation of interface method.
+ * If the annotation is absent (or has less names than wrappers in the chain), the first field of the object is used,
+ * the same way {@link SingleFieldWrapperTypeAdapterFactory} does it.<br/>
+ * <p>
+ * Chain of single {@link PathWrapper} is supported as well, field names are taken from {@link PathWrapper.Path} annotation then.<br/>
+ * <p>
+ * If actual data type is {@link CloseableIterator} (or {@link Iterator}), wrapped value is expected to be a JSON array
+ * and its elements are decoded one by one as the caller iterates.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SingleFieldStreamingUnwrapperFactory implements InWrapperConverterFactory.StreamingUnwrapperFactory {
+
+    private final Gson gson;
+
+    public SingleFieldStreamingUnwrapperFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> create(Type dataType, Class[] wrapperClasses, Annotation[] annotations, Retrofit retrofit) {
+        String[] fieldNames = ChainFieldNames.resolve(wrapperClasses, annotations);
+        if (fieldNames == null) {
+            return null;
+        }
+
+        if (dataType instanceof ParameterizedType) {
+            Type rawType = ((ParameterizedType) dataType).getRawType();
+            if (rawType == CloseableIterator.class || rawType == Iterator.class) {
+                Type elementType = ((ParameterizedType) dataType).getActualTypeArguments()[0];
+                TypeAdapter<?> elementAdapter = gson.getAdapter(TypeToken.get(elementType));
+                return new StreamingIteratorConverter<>(gson, elementAdapter, fieldNames);
+            }
+        }
+
+        TypeAdapter<?> valueAdapter = gson.getAdapter(TypeToken.get(dataType));
+        return new StreamingUnwrapConverter<>(gson, valueAdapter, fieldNames);
+    }
+
+    /**
+     * Positions {@link JsonReader} at the wrapped value, skipping all the other fields of wrapper objects
+     *
+     * @param in         reader positioned at the outermost wrapper object
+     * @param fieldNames field names for each wrapper level
+     * @return number of entered wrapper objects. Equals to {@code fieldNames.length} if reader is positioned at the wrapped value,
+     * less than that if one of the wrappers is {@code null}
+     */
+    static int descend(JsonReader in, String[] fieldNames) throws IOException {
+        for (int depth = 0; depth < fieldNames.length; depth++) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return depth;
+            }
+
+            in.beginObject();
+
+            String fieldName = fieldNames[depth];
+            if (!seekField(in, fieldName)) {
+                throw new JsonSyntaxException("Wrapped field " + (fieldName != null ? "\"" + fieldName + "\" " : "")
+                        + "not found at " + in.getPath());
+            }
+        }
+        return fieldNames.length;
+    }
+
+    private static boolean seekField(JsonReader in, String fieldName) throws IOException {
+        if (fieldName == null) {
+            if (!in.hasNext()) {
+                return false;
+            }
+            in.skipValue(); // skips the name token without decoding it
+            return true;
+        }
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (fieldName.equals(name)) {
+                return true;
+            }
+            in.skipValue();
+        }
+        return false;
+    }
+
+    /**
+     * Skips remaining fields of entered wrapper objects and closes them
+     *
+     * @param in     reader positioned after the wrapped value
+     * @param levels number of wrapper objects to close, as returned by {@link #descend(JsonReader, String[])}
+     */
+    static void ascend(JsonReader in, int levels) throws IOException {
+        for (int i = 0; i < levels; i++) {
+            while (in.hasNext()) {
+                in.nextName();
+                in.skipValue();
+            }
+            in.endObject();
+        }
+    }
+
+    /**
+     * Makes sure there is nothing but whitespace after the outermost wrapper object
+     *
+     * @param in reader positioned after the outermost wrapper object
+     * @throws JsonIOException if there is another JSON value
+     * @throws IOException     if there is malformed trailing content
+     */
+    static void checkFullyConsumed(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonIOException("JSON document was not fully consumed.");
+        }
+    }
+
+    /**
+     * Reads wrapped value, skipping all the other fields of wrapper objects
+     *
+     * @param in           reader positioned at the outermost wrapper object
+     * @param fieldNames   field names for each wrapper level
+     * @param valueAdapter adapter for the innermost value
+     * @return unwrapped value or {@code null} if any of wrappers is {@code null}
+     */
+    static <V> V readWrapped(JsonReader in, String[] fieldNames, TypeAdapter<V> valueAdapter) throws IOException {
+        int levels = descend(in, fieldNames);
+        V value = levels == fieldNames.length ? valueAdapter.read(in) : null;
+        ascend(in, levels);
+        return value;
+    }
+
+    private static class StreamingUnwrapConverter<V> implements Converter<ResponseBody, V> {
+        private final Gson gson;
+        private final TypeAdapter<V> valueAdapter;
+        private final String[] fieldNames;
+
+        StreamingUnwrapConverter(Gson gson, TypeAdapter<V> valueAdapter, String[] fieldNames) {
+            this.gson = gson;
+            this.valueAdapter = valueAdapter;
+            this.fieldNames = fieldNames;
+        }
+
+        @Override
+        public V convert(@Nonnull ResponseBody body) throws IOException {
+            JsonReader jsonReader = gson.newJsonReader(body.charStream());
+            try {
+                V value = readWrapped(jsonReader, fieldNames, valueAdapter);
+                checkFullyConsumed(jsonReader);
+                return value;
+            } finally {
+                body.close();
+            }
+        }
+    }
+
+    private static class StreamingIteratorConverter<E> implements Converter<ResponseBody, CloseableIterator<E>> {
+        private final Gson gson;
+        private final TypeAdapter<E> elementAdapter;
+        private final String[] fieldNames;
+
+        StreamingIteratorConverter(Gson gson, TypeAdapter<E> elementAdapter, String[] fieldNames) {
+            this.gson = gson;
+            this.elementAdapter = elementAdapter;
+            this.fieldNames = fieldNames;
+        }
+
+        @Override
+        public CloseableIterator<E> convert(@Nonnull ResponseBody body) throws IOException {
+            JsonReader jsonReader = gson.newJsonReader(body.charStream());
+            try {
+                int levels = descend(jsonReader, fieldNames);
+                JsonArrayIterator<E> iterator = new JsonArrayIterator<>(body, jsonReader, elementAdapter, levels);
+                if (levels < fieldNames.length || jsonReader.peek() == JsonToken.NULL) {
+                    // null is treated as an empty array
+                    if (levels == fieldNames.length) {
+                        jsonReader.nextNull();
+                    }
+                    ascend(jsonReader, levels);
+                    checkFullyConsumed(jsonReader);
+                    iterator.close();
+                } else {
+                    jsonReader.beginArray();
+                }
+                return iterator;
+            } catch (IOException | RuntimeException e) {
+                body.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Decodes elements of JSON array on demand, closes response body when the array is over
+     */
+    private static class JsonArrayIterator<E> implements CloseableIterator<E> {
+        private final ResponseBody body;
+        private final JsonReader in;
+        private final TypeAdapter<E> elementAdapter;
+        private final int levels;
+        private boolean closed;
+
+        JsonArrayIterator(ResponseBody body, JsonReader in, TypeAdapter<E> elementAdapter, int levels) {
+            this.body = body;
+            this.in = in;
+            this.elementAdapter = elementAdapter;
+            this.levels = levels;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (in.hasNext()) {
+                    return true;
+                }
+                in.endArray();
+                ascend(in, levels);
+                checkFullyConsumed(in);
+                close();
+                return false;
+            } catch (IOException e) {
+                close();
+                throw new JsonIOException(e);
+            } catch (RuntimeException e) {
+                // the reader is broken past this point, release the connection
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return elementAdapter.read(in);
+            } catch (IOException e) {
+                close();
+                throw new JsonIOException(e);
+            } catch (RuntimeException e) {
+                // e.g. JsonSyntaxException of a mistyped element
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            body.close();
+        }
+    }
+}
\ No newline at end of file
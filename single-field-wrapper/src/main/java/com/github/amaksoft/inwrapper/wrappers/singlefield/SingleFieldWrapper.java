@@ -3,9 +3,14 @@ package com.github.amaksoft.inwrapper.wrappers.singlefield;
 import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
 
 import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 
 /**
  * An immutable generic body object for requests and responses with single field of specified name wrapping actual data
+ * (except for thread confined instances of {@link ReusablePacker}, which replaces their data for every request)
  * Created by amak on 2018-02-13.
  *
  * @see SingleFieldWrapperTypeAdapterFactory for serialization/deserialization mechanism
@@ -14,7 +19,7 @@ import java.lang.annotation.Annotation;
 @SuppressWarnings("WeakerAccess")
 public class SingleFieldWrapper<T> {
     private final String dataFieldName;
-    private final T data;
+    private T data;
 
     /**
      * Creates an instance with desired field name
@@ -45,6 +50,15 @@ public class SingleFieldWrapper<T> {
         return data;
     }
 
+    /**
+     * Replaces data of a reused wrapper, see {@link ReusablePacker}
+     *
+     * @param data data object
+     */
+    void setData(T data) {
+        this.data = data;
+    }
+
     /**
      * An unwrapper for this class. Register using {@link InWrapperConverterFactory.Builder#registerUnwrapper(Class, InWrapperConverterFactory.ResponseUnwrapper)}
      *
@@ -59,28 +73,92 @@ public class SingleFieldWrapper<T> {
     }
 
     /**
-     * An packer for this class. Register using {@link InWrapperConverterFactory.Builder#registerPacker(Class, InWrapperConverterFactory.RequestPacker)}
+     * An packer for this class. Register using {@link InWrapperConverterFactory.Builder#registerPacker(Class, InWrapperConverterFactory.RequestPacker)}<br/>
+     * <p>
+     * Field name is looked up in {@link FieldName} annotation once per call site, when request converter is created.
      *
      * @param <T> wrapped data type
      */
-    public static class Packer<T> implements InWrapperConverterFactory.RequestPacker<SingleFieldWrapper<T>, T> {
+    public static class Packer<T> implements InWrapperConverterFactory.CallSitePacker<SingleFieldWrapper<T>, T> {
+        @Override
+        public SingleFieldWrapper<T> pack(T data, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            return new SingleFieldWrapper<>(ChainFieldNames.findFieldName(parameterAnnotations, depth), data);
+        }
+
+        @Override
+        public InWrapperConverterFactory.RequestPacker<SingleFieldWrapper<T>, T> bind(int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            return new NamedPacker<>(ChainFieldNames.findFieldName(parameterAnnotations, depth));
+        }
+    }
+
+    /**
+     * A packer for this class reusing wrapper instances: each call site keeps one mutable wrapper per thread,
+     * which is cleared once the request body is serialized. Saves a wrapper allocation per request on hot write paths.
+     * Register using {@link InWrapperConverterFactory.Builder#registerPacker(Class, InWrapperConverterFactory.RequestPacker)}
+     * instead of {@link Packer}.<br/>
+     * <p>
+     * Wrappers passed to the next converter must not be retained by it, which holds for converters serializing
+     * request body right away, like Gson and Jackson ones.
+     *
+     * @param <T> wrapped data type
+     */
+    public static class ReusablePacker<T> extends Packer<T> {
+        @Override
+        public InWrapperConverterFactory.RequestPacker<SingleFieldWrapper<T>, T> bind(int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            return new ReusingPacker<>(ChainFieldNames.findFieldName(parameterAnnotations, depth));
+        }
+    }
+
+    /**
+     * Packer with field name resolved in advance
+     */
+    private static class NamedPacker<T> implements InWrapperConverterFactory.RequestPacker<SingleFieldWrapper<T>, T> {
+        private final String fieldName;
+
+        NamedPacker(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
         @Override
         public SingleFieldWrapper<T> pack(T data, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
-            SingleFieldWrapper<T> body = null;
-            for (Annotation annotation : parameterAnnotations) {
-                if (annotation instanceof FieldName) {
-                    FieldName fieldNameAnno = (FieldName) annotation;
-                    body = new SingleFieldWrapper<>(fieldNameAnno.value()[depth], data);
+            return new SingleFieldWrapper<>(fieldName, data);
+        }
+    }
+
+    private static class ReusingPacker<T> implements InWrapperConverterFactory.RecyclingPacker<SingleFieldWrapper<T>, T> {
+        private final ThreadLocal<SingleFieldWrapper<T>> wrappers;
+
+        ReusingPacker(final String fieldName) {
+            this.wrappers = new ThreadLocal<SingleFieldWrapper<T>>() {
+                @Override
+                protected SingleFieldWrapper<T> initialValue() {
+                    return new SingleFieldWrapper<>(fieldName, null);
                 }
-            }
-            return body != null ? body : new SingleFieldWrapper<>(null, data);
+            };
+        }
+
+        @Override
+        public SingleFieldWrapper<T> pack(T data, int depth, Annotation[] parameterAnnotations, Annotation[] methodAnnotations) {
+            SingleFieldWrapper<T> wrapper = wrappers.get();
+            wrapper.setData(data);
+            return wrapper;
+        }
+
+        @Override
+        public void recycle() {
+            // don't keep the last request data reachable from the thread
+            wrappers.get().setData(null);
         }
     }
 
     /**
-     * Annotation for passing field names to the {@link Packer}
+     * Annotation for passing field names to the {@link Packer} (on parameters)
+     * and to the {@link SingleFieldStreamingUnwrapperFactory} (on methods).
+     * Names are listed in the same order as wrapper classes in the {@link com.github.amaksoft.inwrapper.InWrapper} chain.
      */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.PARAMETER})
     public @interface FieldName {
         String[] value();
     }
-}
+}
\ No newline at end of file
@@ -12,6 +12,8 @@ import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.gson.internal.$Gson$Preconditions.checkArgument;
 
@@ -23,20 +25,38 @@ import static com.google.gson.internal.$Gson$Preconditions.checkArgument;
  * <p>
  * During serialization creates a JSON object with a single field, filled with {@link SingleFieldWrapper#data}
  * and named with {@link SingleFieldWrapper#dataFieldName} or {@link #defaultFieldName}
- * which falls back to {@link #DEFAULT_FIELD_NAME} if not specified
+ * which falls back to {@link #DEFAULT_FIELD_NAME} if not specified<br/>
+ * <p>
+ * If field names of responses are not used, the factory can be created with {@code retainFieldNames = false}.
+ * The field name is then skipped without being decoded into a {@link String},
+ * and {@link SingleFieldWrapper#getDataFieldName()} of deserialized wrappers returns {@code null}.
  */
 @SuppressWarnings({"WeakerAccess", "unused"})
 public class SingleFieldWrapperTypeAdapterFactory implements TypeAdapterFactory {
     private static final String DEFAULT_FIELD_NAME = "data";
 
     private final String defaultFieldName;
+    private final boolean retainFieldNames;
+    /**
+     * Resolved value types by wrapper type, saves supertype walks when the factory is shared between {@link Gson} instances
+     */
+    private final ConcurrentMap<Type, Type> valueTypes = new ConcurrentHashMap<>();
 
-    public SingleFieldWrapperTypeAdapterFactory(String defaultFieldName) {
+    /**
+     * @param defaultFieldName field name for serialization of wrappers without one
+     * @param retainFieldNames whether field names should be read into deserialized wrappers
+     */
+    public SingleFieldWrapperTypeAdapterFactory(String defaultFieldName, boolean retainFieldNames) {
         if (defaultFieldName == null || defaultFieldName.isEmpty()) {
             this.defaultFieldName = DEFAULT_FIELD_NAME;
         } else {
             this.defaultFieldName = defaultFieldName;
         }
+        this.retainFieldNames = retainFieldNames;
+    }
+
+    public SingleFieldWrapperTypeAdapterFactory(String defaultFieldName) {
+        this(defaultFieldName, true);
     }
 
     public SingleFieldWrapperTypeAdapterFactory() {
@@ -52,21 +72,27 @@ public class SingleFieldWrapperTypeAdapterFactory implements TypeAdapterFactory
             return null;
         }
 
-        Class<?> rawTypeOfSrc = $Gson$Types.getRawType(type);
-        Type valueType = getValueType(type, rawTypeOfSrc);
+        Type valueType = valueTypes.get(type);
+        if (valueType == null) {
+            Class<?> rawTypeOfSrc = $Gson$Types.getRawType(type);
+            valueType = getValueType(type, rawTypeOfSrc);
+            valueTypes.putIfAbsent(type, valueType);
+        }
         TypeAdapter<?> valueAdapter = gson.getAdapter(TypeToken.get(valueType));
 
         //noinspection unchecked
-        return new SingleFieldBodyTypeAdapter(valueAdapter, defaultFieldName).nullSafe();
+        return new SingleFieldBodyTypeAdapter(valueAdapter, defaultFieldName, retainFieldNames).nullSafe();
     }
 
     private static class SingleFieldBodyTypeAdapter<V> extends TypeAdapter<SingleFieldWrapper<V>> {
         private final TypeAdapter<V> valueTypeAdapter;
-        private String defaultFieldName;
+        private final String defaultFieldName;
+        private final boolean retainFieldNames;
 
-        SingleFieldBodyTypeAdapter(TypeAdapter<V> valueTypeAdapter, String defaultFieldName) {
+        SingleFieldBodyTypeAdapter(TypeAdapter<V> valueTypeAdapter, String defaultFieldName, boolean retainFieldNames) {
             this.valueTypeAdapter = valueTypeAdapter;
             this.defaultFieldName = defaultFieldName;
+            this.retainFieldNames = retainFieldNames;
         }
 
         @Override
@@ -86,7 +112,13 @@ public class SingleFieldWrapperTypeAdapterFactory implements TypeAdapterFactory
         public SingleFieldWrapper<V> read(JsonReader in) throws IOException {
             in.beginObject();
 
-            SingleFieldWrapper<V> body = new SingleFieldWrapper<>(in.nextName(), valueTypeAdapter.read(in));
+            String fieldName = null;
+            if (retainFieldNames) {
+                fieldName = in.nextName();
+            } else {
+                in.skipValue(); // skips the name token without decoding it
+            }
+            SingleFieldWrapper<V> body = new SingleFieldWrapper<>(fieldName, valueTypeAdapter.read(in));
 
             in.endObject(); // if not the end of JSON object, it's not a single field JSON and something went wrong
 
@@ -0,0 +1,49 @@
+package com.github.amaksoft.inwrapper.wrappers.envelope;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Unit-tests for {@link EnvelopeWrapperTypeAdapterFactory}
+ */
+public class EnvelopeWrapperTypeAdapterFactoryTest {
+
+    private static final Type LIST_ENVELOPE_TYPE = new TypeToken<EnvelopeWrapper<List<Integer>>>() {
+    }.getType();
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new EnvelopeWrapperTypeAdapterFactory("data", Collections.singletonMap("version", 2)))
+            .create();
+
+    @Test
+    public void testReadSkipsSiblings() {
+        String json = "{\"status\":\"ok\",\"meta\":{\"paging\":{\"next\":null},\"trace\":[1,2]},\"data\":[1,2,3],\"extra\":true}";
+
+        EnvelopeWrapper<List<Integer>> envelope = gson.fromJson(json, LIST_ENVELOPE_TYPE);
+        assertThat("Data mismatch", envelope.getData(), is(equalTo(Arrays.asList(1, 2, 3))));
+    }
+
+    @Test
+    public void testReadMissingData() {
+        EnvelopeWrapper<List<Integer>> envelope = gson.fromJson("{\"status\":\"error\"}", LIST_ENVELOPE_TYPE);
+        assertThat(envelope.getData(), is(nullValue()));
+    }
+
+    @Test
+    public void testWriteConstantFields() {
+        String json = gson.toJson(new EnvelopeWrapper<>(Arrays.asList(1, 2)), LIST_ENVELOPE_TYPE);
+        assertThat("Envelope JSON mismatch", json, is(equalTo("{\"version\":2,\"data\":[1,2]}")));
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.amaksoft.inwrapper.wrappers.envelope;
+
+import com.github.amaksoft.inwrapper.wrappers.singlefield.SingleFieldWrapper;
+import com.google.gson.Gson;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+import retrofit2.Converter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Unit-tests for {@link ResultEnvelopeStreamingUnwrapperFactory}
+ */
+public class ResultEnvelopeStreamingUnwrapperFactoryTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    static class ApiError {
+        int code;
+        String message;
+    }
+
+    private final ResultEnvelopeStreamingUnwrapperFactory factory =
+            new ResultEnvelopeStreamingUnwrapperFactory(new Gson(), "result", "error", ApiError.class);
+
+    private Object convert(String json) throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(Integer[].class, new Class[]{ResultEnvelope.class}, new Annotation[]{}, null);
+        return converter.convert(ResponseBody.create(JSON, json));
+    }
+
+    @Test
+    public void testData() throws IOException {
+        String json = "{\"status\":\"ok\",\"meta\":{\"took\":[1,2]},\"result\":[1,2,3],\"error\":null}";
+        List<Integer> result = Arrays.asList((Integer[]) convert(json));
+        assertThat("Unwrapped value mismatch", result, is(equalTo(Arrays.asList(1, 2, 3))));
+    }
+
+    @Test
+    public void testError() throws IOException {
+        try {
+            convert("{\"status\":\"failed\",\"error\":{\"code\":42,\"message\":\"Nope\"}}");
+            throw new AssertionError("Error expected");
+        } catch (EnvelopeErrorException e) {
+            ApiError error = e.getError(ApiError.class);
+            assertThat("Error code mismatch", error.code, is(equalTo(42)));
+            assertThat("Error message mismatch", error.message, is(equalTo("Nope")));
+        }
+    }
+
+    @Test
+    public void testNoData() throws IOException {
+        assertThat(convert("{\"status\":\"ok\"}"), is(nullValue()));
+    }
+
+    @Test
+    public void testUnsupportedChain() {
+        assertThat(factory.create(String.class, new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null), is(nullValue()));
+        assertThat(factory.create(String.class, new Class[]{ResultEnvelope.class, ResultEnvelope.class}, new Annotation[]{}, null), is(nullValue()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.AfterClass;
+import org.junit.Test;
+import retrofit2.Converter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit-tests for {@link ParallelArrayStreamingUnwrapperFactory}
+ */
+public class ParallelArrayStreamingUnwrapperFactoryTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final Type RECORDS_TYPE = new TypeToken<List<Record>>() {
+    }.getType();
+
+    static class Record {
+        int id;
+        String name;
+        List<String> tags;
+
+        Record(int id, String name, List<String> tags) {
+            this.id = id;
+            this.name = name;
+            this.tags = tags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Record)) return false;
+            Record that = (Record) o;
+            return id == that.id && name.equals(that.name) && tags.equals(that.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    interface Annotated {
+        @SingleFieldWrapper.FieldName({"response", "items"})
+        void namedFields();
+
+        @SingleFieldWrapper.FieldName({"re\"sponse"})
+        void escapedName();
+    }
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+    private static final Gson gson = new Gson();
+
+    private final ParallelArrayStreamingUnwrapperFactory factory = new ParallelArrayStreamingUnwrapperFactory(gson, pool, 16);
+
+    @AfterClass
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    private static Annotation[] annotationsOf(String methodName) throws NoSuchMethodException {
+        return Annotated.class.getDeclaredMethod(methodName).getAnnotations();
+    }
+
+    private static Object convert(Converter<ResponseBody, ?> converter, String json) throws IOException {
+        return converter.convert(ResponseBody.create(JSON, json));
+    }
+
+    private static List<Record> records(int count) {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // structural characters and multi-byte ones inside strings must not confuse the scan
+            records.add(new Record(i, "name \"" + i + "\" {[,]} é中", Arrays.asList("a", "b\\", "]")));
+        }
+        return records;
+    }
+
+    @Test
+    public void testParallelDecodeKeepsOrder() throws IOException, NoSuchMethodException {
+        Converter<ResponseBody, ?> converter = factory.create(RECORDS_TYPE,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, annotationsOf("namedFields"), null);
+
+        List<Record> expected = records(10000);
+        String json = "{\"meta\":{\"count\":[1,2]},\n\"response\" : {\"status\":\"ok\", \"items\" : " + gson.toJson(expected)
+                + " , \"paging\":{\"next\":null}},\"trailer\":\"x\"}";
+        assertThat("Decoded records mismatch", convert(converter, json), is(equalTo((Object) expected)));
+    }
+
+    @Test
+    public void testSmallArrayOnCallingThread() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(RECORDS_TYPE,
+                new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        List<Record> expected = records(3);
+        assertThat(convert(converter, "{\"items\":" + gson.toJson(expected) + "}"), is(equalTo((Object) expected)));
+        assertThat(convert(converter, "{\"items\":[]}"), is(equalTo((Object) new ArrayList<>())));
+    }
+
+    @Test
+    public void testEscapedFieldName() throws IOException, NoSuchMethodException {
+        Converter<ResponseBody, ?> converter = factory.create(new TypeToken<List<Integer>>() {
+        }.getType(), new Class[]{SingleFieldWrapper.class}, annotationsOf("escapedName"), null);
+
+        assertThat(convert(converter, "{\"other\":[0],\"re\\\"sponse\":[1,2,3]}"), is(equalTo((Object) Arrays.asList(1, 2, 3))));
+    }
+
+    @Test
+    public void testNulls() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(RECORDS_TYPE,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        assertThat(convert(converter, "{\"a\":null}"), is(nullValue()));
+        assertThat(convert(converter, "{\"a\":{\"b\":null}}"), is(nullValue()));
+    }
+
+    @Test
+    public void testNonListTypesSkipped() {
+        assertThat(factory.create(String.class, new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null), is(nullValue()));
+        assertThat(factory.create(Integer[].class, new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null), is(nullValue()));
+    }
+
+    @Test
+    public void testBodyCharset() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(RECORDS_TYPE,
+                new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        List<Record> expected = records(100);
+        String json = "{\"items\":" + gson.toJson(expected) + "}";
+        for (String charset : Arrays.asList("UTF-16BE", "UTF-16LE")) {
+            ResponseBody body = ResponseBody.create(MediaType.parse("application/json; charset=" + charset), json.getBytes(charset));
+            assertThat("Decoded records mismatch for " + charset, converter.convert(body), is(equalTo((Object) expected)));
+        }
+    }
+
+    @Test
+    public void testTrailingContent() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(new TypeToken<List<Integer>>() {
+        }.getType(), new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        assertThat(convert(converter, "{\"items\":[1,2,3]} \n"), is(equalTo((Object) Arrays.asList(1, 2, 3))));
+        for (String json : Arrays.asList("{\"items\":[1,2,3]} x", "{\"items\":[1,2,3]}{}", "{\"items\":null}[]")) {
+            try {
+                convert(converter, json);
+                fail("Exception expected for " + json);
+            } catch (JsonIOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testSharedPool() throws IOException {
+        Converter<ResponseBody, ?> converter = new ParallelArrayStreamingUnwrapperFactory(gson).create(RECORDS_TYPE,
+                new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        List<Record> expected = records(10000);
+        assertThat(convert(converter, "{\"items\":" + gson.toJson(expected) + "}"), is(equalTo((Object) expected)));
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testMalformedElement() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(new TypeToken<List<Integer>>() {
+        }.getType(), new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i == 500 ? "\"x\"" : String.valueOf(i)).append(',');
+        }
+        json.append("0]}");
+        convert(converter, json.toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnterminatedArray() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(new TypeToken<List<Integer>>() {
+        }.getType(), new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        convert(converter, "{\"items\":[1,2,3}");
+    }
+}
\ No newline at end of file
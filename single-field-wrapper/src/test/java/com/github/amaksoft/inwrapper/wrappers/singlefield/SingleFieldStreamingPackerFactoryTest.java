@@ -0,0 +1,77 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.Test;
+import retrofit2.Converter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Unit-tests for {@link SingleFieldStreamingPackerFactory}
+ */
+public class SingleFieldStreamingPackerFactoryTest {
+
+    interface Annotated {
+        void namedFields(@SingleFieldWrapper.FieldName({"request", "items"}) Object body);
+    }
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new SingleFieldWrapperTypeAdapterFactory())
+            .create();
+
+    private final SingleFieldStreamingPackerFactory factory = new SingleFieldStreamingPackerFactory(gson);
+
+    private static String write(Converter<?, RequestBody> converter, Object value) throws IOException {
+        //noinspection unchecked
+        RequestBody body = ((Converter<Object, RequestBody>) converter).convert(value);
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readUtf8();
+    }
+
+    @Test
+    public void testSameOutputAsTypeAdapter() throws IOException {
+        List<String> data = Arrays.asList("a", "b");
+        Type listType = new TypeToken<List<String>>() {
+        }.getType();
+        Type wrappedType = new TypeToken<SingleFieldWrapper<SingleFieldWrapper<List<String>>>>() {
+        }.getType();
+
+        Converter<?, RequestBody> converter = factory.create(listType,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, new Annotation[]{}, new Annotation[]{}, null);
+
+        String expected = gson.toJson(new SingleFieldWrapper<>(null, new SingleFieldWrapper<>(null, data)), wrappedType);
+        assertThat("Request body mismatch", write(converter, data), is(equalTo(expected)));
+    }
+
+    @Test
+    public void testNamedFieldsAndPrimitiveValue() throws IOException, NoSuchMethodException {
+        Annotation[] parameterAnnotations = Annotated.class.getDeclaredMethod("namedFields", Object.class).getParameterAnnotations()[0];
+
+        Converter<?, RequestBody> converter = factory.create(String.class,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, parameterAnnotations, new Annotation[]{}, null);
+
+        assertThat("Request body mismatch", write(converter, "value\""), is(equalTo("{\"request\":{\"items\":\"value\\\"\"}}")));
+    }
+
+    @Test
+    public void testUnsupportedChain() {
+        Converter<?, RequestBody> converter = factory.create(String.class,
+                new Class[]{Object.class}, new Annotation[]{}, new Annotation[]{}, null);
+
+        assertThat(converter, is(nullValue()));
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.github.amaksoft.inwrapper.CloseableIterator;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import org.junit.Test;
+import retrofit2.Converter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit-tests for {@link SingleFieldStreamingUnwrapperFactory}
+ */
+public class SingleFieldStreamingUnwrapperFactoryTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    interface Annotated {
+        @SingleFieldWrapper.FieldName({"response", "result"})
+        void namedFields();
+
+        @PathWrapper.Path("response.result.items")
+        void path();
+
+        @PathWrapper.Path("response..items")
+        void malformedPath();
+    }
+
+    private final SingleFieldStreamingUnwrapperFactory factory = new SingleFieldStreamingUnwrapperFactory(new Gson());
+
+    private static Annotation[] annotationsOf(String methodName) throws NoSuchMethodException {
+        return Annotated.class.getDeclaredMethod(methodName).getAnnotations();
+    }
+
+    private Object convert(Converter<ResponseBody, ?> converter, String json) throws IOException {
+        return converter.convert(ResponseBody.create(JSON, json));
+    }
+
+    @Test
+    public void testUnwrapFirstFieldWhenNamesNotSpecified() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(String.class,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        Object result = convert(converter, "{\"a\":{\"b\":\"value\"}}");
+        assertThat("Unwrapped value mismatch", (String) result, is(equalTo("value")));
+    }
+
+    @Test
+    public void testNamedFieldsSkipSiblings() throws IOException, NoSuchMethodException {
+        Converter<ResponseBody, ?> converter = factory.create(Integer[].class,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, annotationsOf("namedFields"), null);
+
+        String json = "{\"meta\":{\"diagnostics\":[1,2,3]},"
+                + "\"response\":{\"status\":\"ok\",\"result\":[1,2,3],\"paging\":{\"next\":null}},"
+                + "\"trailer\":\"x\"}";
+        List<Integer> result = Arrays.asList((Integer[]) convert(converter, json));
+        assertThat("Unwrapped value mismatch", result, is(equalTo(Arrays.asList(1, 2, 3))));
+    }
+
+    @Test
+    public void testNullWrapper() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(String.class,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        assertThat(convert(converter, "{\"a\":null}"), is(nullValue()));
+    }
+
+    @Test
+    public void testTrailingContent() throws IOException {
+        Converter<ResponseBody, ?> converter = factory.create(String.class,
+                new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        assertThat(convert(converter, "{\"a\":\"value\"} \n"), is(equalTo((Object) "value")));
+        for (String json : Arrays.asList("{\"a\":\"value\"} x", "{\"a\":\"value\"}{}")) {
+            try {
+                convert(converter, json);
+                fail("Exception expected for " + json);
+            } catch (IOException | JsonIOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testMissingNamedField() throws IOException, NoSuchMethodException {
+        Converter<ResponseBody, ?> converter = factory.create(String.class,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, annotationsOf("namedFields"), null);
+
+        convert(converter, "{\"response\":{\"other\":\"value\"}}");
+    }
+
+    @Test
+    public void testUnsupportedChain() {
+        Converter<ResponseBody, ?> converter = factory.create(String.class,
+                new Class[]{SingleFieldWrapper.class, Object.class}, new Annotation[]{}, null);
+
+        assertThat(converter, is(nullValue()));
+    }
+
+    @Test
+    public void testPath() throws IOException, NoSuchMethodException {
+        Converter<ResponseBody, ?> converter = factory.create(Integer[].class,
+                new Class[]{PathWrapper.class}, annotationsOf("path"), null);
+
+        String json = "{\"meta\":{\"items\":[0]},"
+                + "\"response\":{\"status\":\"ok\",\"result\":{\"count\":3,\"items\":[1,2,3]},\"paging\":{\"next\":null}},"
+                + "\"trailer\":\"x\"}";
+        List<Integer> result = Arrays.asList((Integer[]) convert(converter, json));
+        assertThat("Unwrapped value mismatch", result, is(equalTo(Arrays.asList(1, 2, 3))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedPath() throws NoSuchMethodException {
+        factory.create(String.class, new Class[]{PathWrapper.class}, annotationsOf("malformedPath"), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingPath() {
+        factory.create(String.class, new Class[]{PathWrapper.class}, new Annotation[]{}, null);
+    }
+
+    @Test
+    public void testIterator() throws IOException, NoSuchMethodException {
+        Type iteratorType = new TypeToken<CloseableIterator<Integer>>() {
+        }.getType();
+        Converter<ResponseBody, ?> converter = factory.create(iteratorType,
+                new Class[]{SingleFieldWrapper.class, SingleFieldWrapper.class}, annotationsOf("namedFields"), null);
+
+        String json = "{\"response\":{\"status\":\"ok\",\"result\":[1,2,3],\"paging\":{\"next\":null}},\"trailer\":\"x\"}";
+        //noinspection unchecked
+        CloseableIterator<Integer> iterator = (CloseableIterator<Integer>) convert(converter, json);
+
+        List<Integer> result = new ArrayList<>();
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        assertThat("Iterated values mismatch", result, is(equalTo(Arrays.asList(1, 2, 3))));
+    }
+
+    @Test
+    public void testIteratorOverNull() throws IOException {
+        Type iteratorType = new TypeToken<CloseableIterator<Integer>>() {
+        }.getType();
+        Converter<ResponseBody, ?> converter = factory.create(iteratorType,
+                new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        CloseableIterator<?> iterator = (CloseableIterator<?>) convert(converter, "{\"data\":null}");
+        assertThat("Iterator over null should be empty", !iterator.hasNext());
+    }
+
+    @Test
+    public void testIteratorTrailingContent() throws IOException {
+        Type iteratorType = new TypeToken<CloseableIterator<Integer>>() {
+        }.getType();
+        Converter<ResponseBody, ?> converter = factory.create(iteratorType,
+                new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        ClosingTrackingBody body = new ClosingTrackingBody(ResponseBody.create(JSON, "{\"data\":[1]} x"));
+        //noinspection unchecked
+        CloseableIterator<Integer> iterator = (CloseableIterator<Integer>) converter.convert(body);
+        assertThat(iterator.next(), is(equalTo(1)));
+        try {
+            iterator.hasNext();
+            fail("Exception expected");
+        } catch (JsonIOException e) {
+            assertThat("Body should be closed after trailing content", body.closed);
+        }
+
+        try {
+            convert(converter, "{\"data\":null}{}");
+            fail("Exception expected");
+        } catch (IOException | JsonIOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIteratorClosesBodyOnBadElement() throws IOException {
+        Type iteratorType = new TypeToken<CloseableIterator<Integer>>() {
+        }.getType();
+        Converter<ResponseBody, ?> converter = factory.create(iteratorType,
+                new Class[]{SingleFieldWrapper.class}, new Annotation[]{}, null);
+
+        ClosingTrackingBody body = new ClosingTrackingBody(ResponseBody.create(JSON, "{\"data\":[1,\"two\",3]}"));
+        //noinspection unchecked
+        CloseableIterator<Integer> iterator = (CloseableIterator<Integer>) converter.convert(body);
+        assertThat(iterator.next(), is(equalTo(1)));
+        try {
+            iterator.next();
+            fail("Exception expected");
+        } catch (JsonSyntaxException e) {
+            assertThat("Body should be closed after a bad element", body.closed);
+            assertThat("Iterator should be over after a bad element", !iterator.hasNext());
+        }
+    }
+
+    /**
+     * Delegating body recording whether it was closed
+     */
+    private static class ClosingTrackingBody extends ResponseBody {
+        private final ResponseBody delegate;
+        boolean closed;
+
+        ClosingTrackingBody(ResponseBody delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return delegate.source();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            delegate.close();
+        }
+    }
+}
\ No newline at end of file
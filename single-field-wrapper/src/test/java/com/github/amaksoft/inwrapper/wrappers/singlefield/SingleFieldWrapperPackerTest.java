@@ -0,0 +1,88 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.github.amaksoft.inwrapper.InWrapperConverterFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+/**
+ * Unit-tests for {@link SingleFieldWrapper.Packer} and {@link SingleFieldWrapper.ReusablePacker}
+ */
+public class SingleFieldWrapperPackerTest {
+
+    private static final Type WRAPPER_TYPE = new TypeToken<SingleFieldWrapper<String>>() {
+    }.getType();
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    interface Annotated {
+        void namedFields(@SingleFieldWrapper.FieldName({"outer", "name"}) Object body);
+    }
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new SingleFieldWrapperTypeAdapterFactory())
+            .create();
+
+    private static Annotation[] parameterAnnotations() throws NoSuchMethodException {
+        return Annotated.class.getDeclaredMethod("namedFields", Object.class).getParameterAnnotations()[0];
+    }
+
+    @Test
+    public void testBoundPacker() throws Exception {
+        InWrapperConverterFactory.RequestPacker<SingleFieldWrapper<String>, String> packer =
+                new SingleFieldWrapper.Packer<String>().bind(1, parameterAnnotations(), NO_ANNOTATIONS);
+
+        // field name is resolved at bind time, annotations passed on pack don't matter anymore
+        SingleFieldWrapper<String> wrapper = packer.pack("value", 1, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        assertThat("Field name mismatch", wrapper.getDataFieldName(), is(equalTo("name")));
+        assertThat("Data mismatch", wrapper.getData(), is(equalTo("value")));
+    }
+
+    @Test
+    public void testMissingFieldNameFallsBackToDefault() throws Exception {
+        InWrapperConverterFactory.RequestPacker<SingleFieldWrapper<String>, String> packer =
+                new SingleFieldWrapper.Packer<String>().bind(2, parameterAnnotations(), NO_ANNOTATIONS);
+
+        SingleFieldWrapper<String> wrapper = packer.pack("value", 2, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        assertThat("Default field name expected", wrapper.getDataFieldName(), is(nullValue()));
+        assertThat("Serialized wrapper mismatch", gson.toJson(wrapper, WRAPPER_TYPE), is(equalTo("{\"data\":\"value\"}")));
+    }
+
+    @Test
+    public void testReusablePacker() throws Exception {
+        InWrapperConverterFactory.RequestPacker<SingleFieldWrapper<String>, String> packer =
+                new SingleFieldWrapper.ReusablePacker<String>().bind(1, parameterAnnotations(), NO_ANNOTATIONS);
+        assertThat("Recycling packer expected", packer instanceof InWrapperConverterFactory.RecyclingPacker);
+
+        SingleFieldWrapper<String> first = packer.pack("value", 1, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        assertThat("Serialized wrapper mismatch", gson.toJson(first, WRAPPER_TYPE), is(equalTo("{\"name\":\"value\"}")));
+        ((InWrapperConverterFactory.RecyclingPacker) packer).recycle();
+        assertThat("Data expected to be cleared on recycle", first.getData(), is(nullValue()));
+
+        SingleFieldWrapper<String> second = packer.pack("other", 1, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        assertThat("Wrapper expected to be reused", second, is(sameInstance(first)));
+        assertThat("Serialized wrapper mismatch", gson.toJson(second, WRAPPER_TYPE), is(equalTo("{\"name\":\"other\"}")));
+    }
+
+    @Test
+    public void testReusedWrapperSerializedReflectively() throws Exception {
+        InWrapperConverterFactory.RequestPacker<SingleFieldWrapper<String>, String> packer =
+                new SingleFieldWrapper.ReusablePacker<String>().bind(1, parameterAnnotations(), NO_ANNOTATIONS);
+
+        // serializers without the type adapter factory see the reused wrapper's data as well
+        SingleFieldWrapper<String> wrapper = packer.pack("value", 1, NO_ANNOTATIONS, NO_ANNOTATIONS);
+        assertThat("Plain wrapper expected", wrapper.getClass(), is(equalTo((Object) SingleFieldWrapper.class)));
+        assertThat("Serialized wrapper mismatch", new Gson().toJson(wrapper, WRAPPER_TYPE),
+                is(equalTo("{\"dataFieldName\":\"name\",\"data\":\"value\"}")));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.github.amaksoft.inwrapper.wrappers.singlefield;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+/**
+ * Unit-tests for {@link SingleFieldWrapperTypeAdapterFactory}
+ */
+public class SingleFieldWrapperTypeAdapterFactoryTest {
+
+    private static final Type WRAPPER_TYPE = new TypeToken<SingleFieldWrapper<String>>() {
+    }.getType();
+
+    @Test
+    public void testReadRetainsFieldName() {
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new SingleFieldWrapperTypeAdapterFactory())
+                .create();
+
+        SingleFieldWrapper<String> wrapper = gson.fromJson("{\"result\":\"value\"}", WRAPPER_TYPE);
+        assertThat("Field name mismatch", wrapper.getDataFieldName(), is(equalTo("result")));
+        assertThat("Data mismatch", wrapper.getData(), is(equalTo("value")));
+    }
+
+    @Test
+    public void testReadSkipsFieldName() {
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new SingleFieldWrapperTypeAdapterFactory("payload", false))
+                .create();
+
+        SingleFieldWrapper<String> wrapper = gson.fromJson("{\"result\":\"value\"}", WRAPPER_TYPE);
+        assertThat(wrapper.getDataFieldName(), is(nullValue()));
+        assertThat("Data mismatch", wrapper.getData(), is(equalTo("value")));
+        assertThat("Default field name expected on write", gson.toJson(wrapper, WRAPPER_TYPE), is(equalTo("{\"payload\":\"value\"}")));
+    }
+}